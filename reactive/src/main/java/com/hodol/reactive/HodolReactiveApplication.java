@@ -0,0 +1,12 @@
+package com.hodol.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+@SpringBootApplication
+public class HodolReactiveApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.run(HodolReactiveApplication.class, args);
+    }
+}
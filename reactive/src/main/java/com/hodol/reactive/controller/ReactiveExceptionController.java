@@ -0,0 +1,65 @@
+package com.hodol.reactive.controller;
+
+import com.hodol.api.exception.HodollogException;
+import com.hodol.api.response.ErrorResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+
+/**
+ * 서블릿 앱의 ExceptionController 와 같은 에러 응답 (ErrorResponse, HodollogException 상태 코드)
+ */
+@Slf4j
+@RestControllerAdvice
+@RequiredArgsConstructor
+public class ReactiveExceptionController {
+
+    public static final String EXCEPTION_COUNTER = "hodol.exceptions";
+
+    private final MeterRegistry meterRegistry;
+
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ErrorResponse invalidRequestHandler(WebExchangeBindException e) {
+        count(e, 400);
+
+        ErrorResponse response = ErrorResponse.builder()
+            .code("400")
+            .message("잘못된 요청입니다.")
+            .build();
+
+        for (FieldError fieldError : e.getFieldErrors()) {
+            response.addValidation(fieldError.getField(), fieldError.getDefaultMessage());
+        }
+
+        return response;
+    }
+
+    @ExceptionHandler(HodollogException.class)
+    public ResponseEntity<ErrorResponse> hodollogException(HodollogException e) {
+        int statusCode = e.getStatusCode();
+        count(e, statusCode);
+
+        ErrorResponse body = ErrorResponse.builder()
+            .code(String.valueOf(statusCode))
+            .message(e.getMessage())
+            .validation(e.getValidation())
+            .build();
+
+        return ResponseEntity.status(statusCode).body(body);
+    }
+
+    private void count(Exception e, int statusCode) {
+        meterRegistry.counter(EXCEPTION_COUNTER,
+                "exception", e.getClass().getSimpleName(),
+                "status", String.valueOf(statusCode))
+            .increment();
+    }
+}
@@ -0,0 +1,70 @@
+package com.hodol.reactive.controller;
+
+import com.hodol.api.request.PostCreate;
+import com.hodol.api.request.PostEdit;
+import com.hodol.api.request.PostSearch;
+import com.hodol.reactive.response.PostResponse;
+import com.hodol.reactive.service.ReactivePostService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * 서블릿 앱의 PostController 와 같은 /posts 계약 (WebFlux + R2DBC)
+ * <p>
+ * 요청을 기다리는 동안 스레드를 잡지 않으므로, 느린 클라이언트가 연결을 오래 물고 있어도 이벤트 루프 몇 개로 처리한다.
+ */
+@RestController
+@RequiredArgsConstructor
+public class ReactivePostController {
+
+    private final ReactivePostService postService;
+
+    @PostMapping("/posts")
+    public Mono<Void> post(@RequestBody @Valid PostCreate request) {
+        request.validate();
+        return postService.write(request).then();
+    }
+
+    @GetMapping("/posts/{postId}")
+    public Mono<ResponseEntity<PostResponse>> get(@PathVariable Long postId) {
+        return postService.get(postId)
+            .map(post -> ResponseEntity.ok()
+                .eTag("\"" + post.getId() + "-" + post.getVersion() + "\"")
+                .body(post));
+    }
+
+    @GetMapping("/posts")
+    public Flux<PostResponse> getAll(@ModelAttribute PostSearch postSearch) {
+        return postService.getList(postSearch);
+    }
+
+    /**
+     * 전체 글을 NDJSON 으로 흘려보낸다. 클라이언트가 느리게 읽으면 DB 에서도 그만큼만 가져온다 (backpressure)
+     */
+    @GetMapping(value = "/posts/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<PostResponse> export() {
+        return postService.export();
+    }
+
+    @PatchMapping("/posts/{postId}")
+    public Mono<PostResponse> edit(@PathVariable Long postId, @RequestBody @Valid PostEdit request) {
+        return postService.edit(postId, request);
+    }
+
+    @DeleteMapping("/posts/{postId}")
+    public Mono<Void> delete(@PathVariable Long postId) {
+        return postService.delete(postId);
+    }
+}
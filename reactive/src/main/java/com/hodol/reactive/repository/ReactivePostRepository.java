@@ -0,0 +1,135 @@
+package com.hodol.reactive.repository;
+
+import com.hodol.api.domain.CompressedTextConverter;
+import com.hodol.api.request.PostSearch;
+import com.hodol.reactive.response.PostResponse;
+import io.r2dbc.spi.Readable;
+import java.nio.ByteBuffer;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * post 테이블 (R2DBC). 스키마는 서블릿 앱의 V2 마이그레이션 이후와 같다
+ * <p>
+ * 본문은 서블릿 앱과 같은 형식({@link CompressedTextConverter})으로 압축해서 쓰고 읽으며, 목록 요약용 excerpt 도 함께 쓴다.
+ * 그래서 두 앱이 같은 DB 를 써도 서로 쓴 글을 읽을 수 있다.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ReactivePostRepository {
+
+    private static final String COLUMNS = "select id, title, content, version, view_count from post";
+
+    // Post.EXCERPT_LENGTH 와 같다 (엔티티는 JPA/Hibernate 에 묶여 있어서 이 모듈로 가져오지 않는다)
+    private static final int EXCERPT_LENGTH = 100;
+
+    private final DatabaseClient databaseClient;
+
+    public Mono<Long> insert(String title, String content) {
+        return databaseClient.sql("select next value for post_seq")
+            .map(row -> row.get(0, Long.class))
+            .one()
+            .flatMap(id -> databaseClient.sql("insert into post (id, title, content, excerpt, version, view_count) "
+                    + "values (:id, :title, :content, :excerpt, 0, 0)")
+                .bind("id", id)
+                .bind("title", title)
+                .bind("content", CompressedTextConverter.compress(content))
+                .bind("excerpt", excerpt(content))
+                .fetch()
+                .rowsUpdated()
+                .thenReturn(id));
+    }
+
+    public Mono<PostResponse> findById(Long id) {
+        return databaseClient.sql(COLUMNS + " where id = :id")
+            .bind("id", id)
+            .map(ReactivePostRepository::toResponse)
+            .one();
+    }
+
+    /**
+     * in 조회는 순서를 보장하지 않는다 (검색 점수 순서는 호출하는 쪽에서 맞춘다)
+     */
+    public Flux<PostResponse> findAllById(List<Long> ids) {
+        return databaseClient.sql(COLUMNS + " where id in (:ids)")
+            .bind("ids", ids)
+            .map(ReactivePostRepository::toResponse)
+            .all();
+    }
+
+    /**
+     * 행을 구독자의 요청(request(n)) 만큼씩 흘려보낸다 (검색어는 ReactivePostSearchIndex 가 처리한다)
+     */
+    public Flux<PostResponse> getList(PostSearch postSearch) {
+        int size = postSearch.getSize();
+
+        if (postSearch.isCursor()) {
+            return databaseClient.sql(COLUMNS + " where id < :lastId order by id desc limit :size")
+                .bind("lastId", postSearch.getLastId())
+                .bind("size", size)
+                .map(ReactivePostRepository::toResponse)
+                .all();
+        }
+
+        return databaseClient.sql(COLUMNS + " order by id desc limit :size offset :offset")
+            .bind("size", size)
+            .bind("offset", postSearch.getOffset())
+            .map(ReactivePostRepository::toResponse)
+            .all();
+    }
+
+    public Flux<PostResponse> findAll() {
+        return databaseClient.sql(COLUMNS + " order by id desc")
+            .map(ReactivePostRepository::toResponse)
+            .all();
+    }
+
+    public Mono<Long> update(Long id, String title, String content) {
+        return databaseClient.sql("update post set title = :title, content = :content, excerpt = :excerpt,"
+                + " version = version + 1 where id = :id")
+            .bind("title", title)
+            .bind("content", CompressedTextConverter.compress(content))
+            .bind("excerpt", excerpt(content))
+            .bind("id", id)
+            .fetch()
+            .rowsUpdated();
+    }
+
+    public Mono<Long> delete(Long id) {
+        return databaseClient.sql("delete from post where id = :id")
+            .bind("id", id)
+            .fetch()
+            .rowsUpdated();
+    }
+
+    private static PostResponse toResponse(Readable row) {
+        return PostResponse.builder()
+            .id(row.get("id", Long.class))
+            .title(row.get("title", String.class))
+            .content(decompress(row.get("content", ByteBuffer.class)))
+            .version(row.get("version", Long.class))
+            .viewCount(row.get("view_count", Long.class))
+            .build();
+    }
+
+    // Post.excerpt 와 같은 규칙 (본문의 앞부분)
+    private static String excerpt(String content) {
+        if (content == null || content.length() <= EXCERPT_LENGTH) {
+            return content;
+        }
+        return content.substring(0, EXCERPT_LENGTH);
+    }
+
+    private static String decompress(ByteBuffer stored) {
+        if (stored == null) {
+            return null;
+        }
+        byte[] bytes = new byte[stored.remaining()];
+        stored.get(bytes);
+        return CompressedTextConverter.decompress(bytes);
+    }
+}
@@ -0,0 +1,32 @@
+package com.hodol.reactive.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+
+/**
+ * post 테이블이 V2 스키마(압축된 content, excerpt)인지 기동할 때 확인한다
+ * <p>
+ * V1 스키마의 DB 에 붙으면 본문을 잘못된 형식으로 읽고 쓰게 되므로 기동을 멈춘다 (색인을 채우기 전에 먼저 확인한다).
+ */
+@Component
+@RequiredArgsConstructor
+public class ReactivePostSchemaCheck {
+
+    private final DatabaseClient databaseClient;
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener(ApplicationReadyEvent.class)
+    public void check() {
+        databaseClient.sql("select excerpt from post where 1 = 0")
+            .fetch()
+            .all()
+            .onErrorMap(e -> new IllegalStateException(
+                "post 테이블이 V2 스키마가 아닙니다. 서블릿 앱의 Flyway 마이그레이션(V2__Compress_post_content)을 먼저 적용해주세요", e))
+            .blockLast();
+    }
+}
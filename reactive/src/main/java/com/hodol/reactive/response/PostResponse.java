@@ -0,0 +1,31 @@
+package com.hodol.reactive.response;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * 서블릿 앱의 PostResponse 와 같은 JSON 모양
+ */
+@Getter
+public class PostResponse {
+
+    private final Long id;
+    private final String title;
+    private final String content;
+    private final Long version;
+    private final Long viewCount;
+
+    @Builder
+    public PostResponse(Long id, String title, String content, Long version, Long viewCount) {
+        this.id = id;
+        this.title = title;
+        this.content = content;
+        this.version = version;
+        this.viewCount = viewCount;
+    }
+
+    // 단건 조회는 제목을 10 자까지만 준다 (서블릿 앱과 같음)
+    public PostResponse shortTitle() {
+        return new PostResponse(id, title.substring(0, Math.min(title.length(), 10)), content, version, viewCount);
+    }
+}
@@ -0,0 +1,50 @@
+package com.hodol.reactive.search;
+
+import com.hodol.api.search.InvertedIndex;
+import com.hodol.reactive.repository.ReactivePostRepository;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * 서블릿 앱의 PostSearchIndex 와 같은 역색인 ({@link InvertedIndex}: 같은 토크나이저, 같은 BM25 점수)
+ * <p>
+ * 기동 시 DB 에서 한 번 채우고, 이후에는 이 앱을 거친 작성/수정/삭제로 갱신한다.
+ * 서블릿 앱의 색인처럼 인스턴스마다 따로 가지므로 다른 앱이 같은 DB 에 쓴 글은 다시 기동할 때 반영된다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReactivePostSearchIndex {
+
+    private final ReactivePostRepository postRepository;
+
+    private final InvertedIndex index = new InvertedIndex();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        postRepository.findAll()
+            .doOnNext(post -> index(post.getId(), post.getTitle(), post.getContent()))
+            .blockLast();
+
+        log.info("post search index built. documents={}, terms={}", index.size(), index.terms());
+    }
+
+    public void index(Long postId, String title, String content) {
+        index.index(postId, title, content);
+    }
+
+    public void remove(Long postId) {
+        index.remove(postId);
+    }
+
+    /**
+     * 점수 순으로 정렬한 글 id 중 offset 부터 limit 개를 돌려준다
+     */
+    public List<Long> search(String query, long offset, int limit) {
+        return index.search(query, offset, limit);
+    }
+}
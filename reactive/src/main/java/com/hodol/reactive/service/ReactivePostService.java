@@ -0,0 +1,76 @@
+package com.hodol.reactive.service;
+
+import com.hodol.api.exception.PostNotFound;
+import com.hodol.api.request.PostCreate;
+import com.hodol.api.request.PostEdit;
+import com.hodol.api.request.PostSearch;
+import com.hodol.reactive.repository.ReactivePostRepository;
+import com.hodol.reactive.response.PostResponse;
+import com.hodol.reactive.search.ReactivePostSearchIndex;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Service
+@RequiredArgsConstructor
+public class ReactivePostService {
+
+    private final ReactivePostRepository postRepository;
+    private final ReactivePostSearchIndex postSearchIndex;
+
+    public Mono<Long> write(PostCreate postCreate) {
+        return postRepository.insert(postCreate.getTitle(), postCreate.getContent())
+            .doOnNext(id -> postSearchIndex.index(id, postCreate.getTitle(), postCreate.getContent()));
+    }
+
+    public Mono<PostResponse> get(Long postId) {
+        return postRepository.findById(postId)
+            .map(PostResponse::shortTitle)
+            .switchIfEmpty(Mono.error(PostNotFound::new));
+    }
+
+    /**
+     * 검색어가 있으면 서블릿 앱과 같은 색인/점수 순서로, 없으면 id 역순으로 준다
+     */
+    public Flux<PostResponse> getList(PostSearch postSearch) {
+        if (postSearch.hasQuery()) {
+            return search(postSearch);
+        }
+        return postRepository.getList(postSearch);
+    }
+
+    public Flux<PostResponse> export() {
+        return postRepository.findAll();
+    }
+
+    public Mono<PostResponse> edit(Long postId, PostEdit postEdit) {
+        return postRepository.update(postId, postEdit.getTitle(), postEdit.getContent())
+            .flatMap(updated -> updated == 0 ? Mono.error(new PostNotFound()) : postRepository.findById(postId))
+            .doOnNext(post -> postSearchIndex.index(post.getId(), post.getTitle(), post.getContent()))
+            .map(PostResponse::shortTitle);
+    }
+
+    public Mono<Void> delete(Long postId) {
+        return postRepository.delete(postId)
+            .flatMap(deleted -> deleted == 0 ? Mono.error(new PostNotFound()) : Mono.empty())
+            .doOnSuccess(ignored -> postSearchIndex.remove(postId))
+            .then();
+    }
+
+    private Flux<PostResponse> search(PostSearch postSearch) {
+        List<Long> ids = postSearchIndex.search(postSearch.getQ(), postSearch.getOffset(), postSearch.getSize());
+        if (ids.isEmpty()) {
+            return Flux.empty();
+        }
+
+        // in 조회는 순서를 보장하지 않으므로 검색 점수 순서로 다시 맞춘다
+        return postRepository.findAllById(ids)
+            .collectMap(PostResponse::getId)
+            .flatMapIterable(posts -> ids.stream()
+                .filter(posts::containsKey)
+                .map(posts::get)
+                .toList());
+    }
+}
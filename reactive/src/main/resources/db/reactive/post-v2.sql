@@ -0,0 +1,6 @@
+-- 빈 DB 에서 서블릿 앱의 V2__Compress_post_content (자바 마이그레이션) 와 같은 모양을 만든다
+-- (옮길 글이 없으므로 컬럼만 바꾼다. 글이 있는 DB 는 서블릿 앱의 Flyway 로 옮긴다)
+alter table post add column content_data blob;
+alter table post add column excerpt varchar(100);
+alter table post drop column content;
+alter table post alter column content_data rename to content;
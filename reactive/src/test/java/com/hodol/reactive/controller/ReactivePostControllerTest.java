@@ -0,0 +1,247 @@
+package com.hodol.reactive.controller;
+
+import com.hodol.api.domain.CompressedTextConverter;
+import com.hodol.api.request.PostCreate;
+import com.hodol.api.request.PostEdit;
+import com.hodol.reactive.repository.ReactivePostRepository;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+@AutoConfigureWebTestClient
+@SpringBootTest
+class ReactivePostControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private ReactivePostRepository postRepository;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Test
+    @DisplayName("글 작성 후 단건 조회")
+    void test1() {
+        // given
+        Long postId = postRepository.insert("123456789012345", "bar").block();
+
+        // expected
+        webTestClient.get().uri("/posts/{postId}", postId)
+            .exchange()
+            .expectStatus().isOk()
+            .expectHeader().valueEquals("ETag", "\"" + postId + "-0\"")
+            .expectBody()
+            .jsonPath("$.id").isEqualTo(postId)
+            .jsonPath("$.title").isEqualTo("1234567890")
+            .jsonPath("$.content").isEqualTo("bar");
+    }
+
+    @Test
+    @DisplayName("/posts 요청시 title 값은 필수다 (서블릿 앱과 같은 에러 응답)")
+    void test2() {
+        PostCreate request = PostCreate.builder()
+            .content("내용입니다.")
+            .build();
+
+        webTestClient.post().uri("/posts")
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(request)
+            .exchange()
+            .expectStatus().isBadRequest()
+            .expectBody()
+            .jsonPath("$.code").isEqualTo("400")
+            .jsonPath("$.message").isEqualTo("잘못된 요청입니다.")
+            .jsonPath("$.validation.title").isEqualTo("타이틀을 입력해주세요.");
+    }
+
+    @Test
+    @DisplayName("제목에 바보는 포함될 수 없다 (PostCreate.validate 재사용)")
+    void test3() {
+        PostCreate request = PostCreate.builder()
+            .title("나는 바보입니다.")
+            .content("반포자이")
+            .build();
+
+        webTestClient.post().uri("/posts")
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(request)
+            .exchange()
+            .expectStatus().isBadRequest()
+            .expectBody()
+            .jsonPath("$.validation.title").isEqualTo("제목에 바보를 포함할 수 없습니다.");
+    }
+
+    @Test
+    @DisplayName("존재하지 않는 게시글 조회/수정/삭제는 404")
+    void test4() {
+        webTestClient.get().uri("/posts/{postId}", 1_000_000L)
+            .exchange()
+            .expectStatus().isNotFound()
+            .expectBody()
+            .jsonPath("$.code").isEqualTo("404")
+            .jsonPath("$.message").isEqualTo("존재하지 않는 글입니다.");
+
+        webTestClient.patch().uri("/posts/{postId}", 1_000_000L)
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(PostEdit.builder().title("호돌걸").content("반포자이").build())
+            .exchange()
+            .expectStatus().isNotFound();
+
+        webTestClient.delete().uri("/posts/{postId}", 1_000_000L)
+            .exchange()
+            .expectStatus().isNotFound();
+    }
+
+    @Test
+    @DisplayName("목록은 id 역순 Flux 로, 구독자가 요청한 만큼만 받는다")
+    void test5() {
+        // given
+        Flux.range(0, 30)
+            .concatMap(i -> postRepository.insert("제목 " + i, "내용 " + i))
+            .blockLast();
+
+        // expected
+        webTestClient.get().uri("/posts?page=1&size=10")
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.length()").isEqualTo(10)
+            .jsonPath("$[0].title").isEqualTo("제목 29")
+            .jsonPath("$[9].title").isEqualTo("제목 20");
+
+        // 30 건 중 5 건만 요청하고 취소한다
+        StepVerifier.create(postRepository.findAll(), 5)
+            .expectNextCount(5)
+            .thenCancel()
+            .verify();
+    }
+
+    @Test
+    @DisplayName("글 수정 후 삭제")
+    void test6() {
+        Long postId = postRepository.insert("foo", "bar").block();
+
+        webTestClient.patch().uri("/posts/{postId}", postId)
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(PostEdit.builder().title("호돌걸").content("반포자이").build())
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.title").isEqualTo("호돌걸")
+            .jsonPath("$.version").isEqualTo(1);
+
+        webTestClient.delete().uri("/posts/{postId}", postId)
+            .exchange()
+            .expectStatus().isOk();
+
+        Assertions.assertNull(postRepository.findById(postId).block());
+    }
+
+    @Test
+    @DisplayName("검색은 서블릿 앱과 같은 색인으로, 모든 검색어를 포함한 글을 점수 순으로 준다")
+    void test7() {
+        // given
+        write("자바 입문", "스프링 부트로 게시판 만들기");
+        write("스프링 부트 시작하기", "자바로 웹 개발");
+        write("코틀린", "안드로이드 개발");
+
+        // expected
+        webTestClient.get().uri("/posts?q={q}", "스프링 부트")
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.length()").isEqualTo(2)
+            .jsonPath("$[0].title").isEqualTo("스프링 부트 시작하기")
+            .jsonPath("$[1].title").isEqualTo("자바 입문");
+    }
+
+    @Test
+    @DisplayName("수정/삭제된 글은 이전 내용으로 검색되지 않는다")
+    void test8() {
+        // given
+        write("호돌맨의 리액티브", "웹플럭스 강의");
+        Long postId = postRepository.findAll().blockFirst().getId();
+
+        webTestClient.patch().uri("/posts/{postId}", postId)
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(PostEdit.builder().title("호돌맨의 서블릿").content("엠브이씨 강의").build())
+            .exchange()
+            .expectStatus().isOk();
+
+        // expected
+        webTestClient.get().uri("/posts?q={q}", "웹플럭스")
+            .exchange()
+            .expectBody()
+            .jsonPath("$.length()").isEqualTo(0);
+
+        webTestClient.get().uri("/posts?q={q}", "엠브이씨")
+            .exchange()
+            .expectBody()
+            .jsonPath("$[0].id").isEqualTo(postId);
+
+        webTestClient.delete().uri("/posts/{postId}", postId)
+            .exchange()
+            .expectStatus().isOk();
+
+        webTestClient.get().uri("/posts?q={q}", "엠브이씨")
+            .exchange()
+            .expectBody()
+            .jsonPath("$.length()").isEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("본문은 서블릿 앱과 같은 형식으로 압축해서 저장하고, 목록 요약용 excerpt 도 채운다")
+    void test9() {
+        // given
+        String content = "호돌맨의 요절복통 개발쇼 ".repeat(50);
+        Long postId = postRepository.insert("foo", content).block();
+
+        // expected
+        webTestClient.get().uri("/posts/{postId}", postId)
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.content").isEqualTo(content);
+
+        byte[] stored = databaseClient.sql("select content from post where id = :id")
+            .bind("id", postId)
+            .map(row -> {
+                ByteBuffer buffer = row.get("content", ByteBuffer.class);
+                byte[] bytes = new byte[buffer.remaining()];
+                buffer.get(bytes);
+                return bytes;
+            })
+            .one()
+            .block();
+        Assertions.assertEquals(1, stored[0]);
+        Assertions.assertTrue(stored.length < content.getBytes(StandardCharsets.UTF_8).length);
+        Assertions.assertEquals(content, CompressedTextConverter.decompress(stored));
+
+        String excerpt = databaseClient.sql("select excerpt from post where id = :id")
+            .bind("id", postId)
+            .map(row -> row.get("excerpt", String.class))
+            .one()
+            .block();
+        Assertions.assertEquals(content.substring(0, 100), excerpt);
+    }
+
+    private void write(String title, String content) {
+        webTestClient.post().uri("/posts")
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(PostCreate.builder().title(title).content(content).build())
+            .exchange()
+            .expectStatus().isOk();
+    }
+}
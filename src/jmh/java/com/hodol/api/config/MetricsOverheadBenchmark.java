@@ -0,0 +1,45 @@
+package com.hodol.api.config;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * 서비스 타이머(히스토그램 + 백분위) 기록 비용
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Threads(4)
+public class MetricsOverheadBenchmark {
+
+    private Timer timer;
+
+    @Setup
+    public void setUp() {
+        timer = Timer.builder("hodol.post.service")
+            .tag("method", "get")
+            .publishPercentileHistogram()
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .register(new SimpleMeterRegistry());
+    }
+
+    @Benchmark
+    public void baseline() {
+        Blackhole.consumeCPU(100);
+    }
+
+    @Benchmark
+    public void timed() {
+        timer.record(() -> Blackhole.consumeCPU(100));
+    }
+}
@@ -0,0 +1,82 @@
+package com.hodol.api.repository;
+
+import com.hodol.HodolApplication;
+import com.hodol.api.domain.Post;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 같은 글 집합을 반복해서 findById: 하이버네이트 2차 캐시 켜기 / 끄기
+ * <p>
+ * 호출마다 새 EntityManager 를 쓰므로(트랜잭션 밖) 1차 캐시는 도움이 되지 않는다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PostFindByIdBenchmark {
+
+    private static final int POSTS = 1000;
+
+    @Param({"true", "false"})
+    private boolean secondLevelCache;
+
+    private ConfigurableApplicationContext context;
+    private PostRepository postRepository;
+
+    private long[] ids;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(HodolApplication.class)
+            .web(WebApplicationType.NONE)
+            .run("--spring.datasource.url=jdbc:h2:mem:find-by-id-" + secondLevelCache,
+                "--spring.jpa.properties.hibernate.cache.use_second_level_cache=" + secondLevelCache,
+                "--spring.jpa.properties.hibernate.cache.use_query_cache=" + secondLevelCache,
+                "--logging.level.root=WARN");
+        postRepository = context.getBean(PostRepository.class);
+        TransactionTemplate transactionTemplate = context.getBean(TransactionTemplate.class);
+
+        List<Post> posts = IntStream.range(0, POSTS)
+            .mapToObj(i -> Post.builder()
+                .title("제목 " + i)
+                .content("내용입니다. ".repeat(50) + i)
+                .build())
+            .toList();
+        transactionTemplate.executeWithoutResult(status -> postRepository.insertAll(posts, 500));
+
+        ids = postRepository.findAll().stream()
+            .mapToLong(Post::getId)
+            .toArray();
+
+        // 한 바퀴 읽어서 캐시를 채운다
+        for (long id : ids) {
+            postRepository.findById(id);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<Post> findById() {
+        return postRepository.findById(ids[ThreadLocalRandom.current().nextInt(ids.length)]);
+    }
+}
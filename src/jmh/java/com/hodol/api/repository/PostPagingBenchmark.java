@@ -0,0 +1,90 @@
+package com.hodol.api.repository;
+
+import com.hodol.HodolApplication;
+import com.hodol.api.domain.Post;
+import com.hodol.api.request.PostSearch;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 마지막 근처 페이지 조회 비용: offset 페이징 vs 커서(keyset) 페이징
+ * <p>
+ * 테이블이 커질수록 offset 은 버리는 행이 늘어나고, 커서는 일정해야 한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PostPagingBenchmark {
+
+    private static final int SIZE = 20;
+
+    @Param({"10000", "100000", "500000"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+    private PostRepository postRepository;
+
+    private PostSearch offsetSearch;
+    private PostSearch cursorSearch;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(HodolApplication.class)
+            .web(WebApplicationType.NONE)
+            .run("--spring.datasource.url=jdbc:h2:mem:paging-" + rows, "--logging.level.root=WARN");
+        postRepository = context.getBean(PostRepository.class);
+        TransactionTemplate transactionTemplate = context.getBean(TransactionTemplate.class);
+
+        for (int start = 0; start < rows; start += 10_000) {
+            List<Post> posts = IntStream.range(start, Math.min(rows, start + 10_000))
+                .mapToObj(i -> Post.builder()
+                    .title("제목 " + i)
+                    .content("내용 " + i)
+                    .build())
+                .toList();
+            transactionTemplate.executeWithoutResult(status -> postRepository.insertAll(posts, 1000));
+        }
+
+        // 같은 깊이(끝에서 두 번째 페이지)를 두 방식으로 조회한다
+        int page = rows / SIZE - 1;
+        offsetSearch = PostSearch.builder()
+            .page(page)
+            .size(SIZE)
+            .build();
+
+        Long firstId = postRepository.getList(offsetSearch).get(0).getId();
+        cursorSearch = PostSearch.builder()
+            .size(SIZE)
+            .lastId(firstId + 1)
+            .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Post> offset() {
+        return postRepository.getList(offsetSearch);
+    }
+
+    @Benchmark
+    public List<Post> cursor() {
+        return postRepository.getList(cursorSearch);
+    }
+}
@@ -0,0 +1,79 @@
+package com.hodol.api.repository;
+
+import com.hodol.HodolApplication;
+import com.hodol.api.domain.Post;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * PostService.edit 가 쓰는 update 한 번짜리 수정 (PostRepositoryImpl.updatePost): 제목만 / 제목 + 본문
+ * <p>
+ * 본문을 바꾸면 압축과 excerpt 계산이 더해진다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PostUpdateBenchmark {
+
+    private static final int POSTS = 1000;
+
+    private ConfigurableApplicationContext context;
+    private PostRepository postRepository;
+    private TransactionTemplate transactionTemplate;
+
+    private long[] ids;
+    private String content;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(HodolApplication.class)
+            .web(WebApplicationType.NONE)
+            .run("--spring.datasource.url=jdbc:h2:mem:update", "--logging.level.root=WARN");
+        postRepository = context.getBean(PostRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+
+        List<Post> posts = IntStream.range(0, POSTS)
+            .mapToObj(i -> Post.builder()
+                .title("제목 " + i)
+                .content("내용입니다. ".repeat(50) + i)
+                .build())
+            .toList();
+        transactionTemplate.executeWithoutResult(status -> postRepository.insertAll(posts, 500));
+
+        ids = postRepository.findAll().stream()
+            .mapToLong(Post::getId)
+            .toArray();
+        content = "수정된 내용입니다. ".repeat(50);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Long title() {
+        long id = ids[ThreadLocalRandom.current().nextInt(ids.length)];
+        return transactionTemplate.execute(status -> postRepository.updatePost(id, "FOO", null, null));
+    }
+
+    @Benchmark
+    public Long titleAndContent() {
+        long id = ids[ThreadLocalRandom.current().nextInt(ids.length)];
+        return transactionTemplate.execute(status -> postRepository.updatePost(id, "FOO", content, null));
+    }
+}
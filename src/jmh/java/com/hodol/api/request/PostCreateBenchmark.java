@@ -0,0 +1,29 @@
+package com.hodol.api.request;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * PostCreate.validate() 비용
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PostCreateBenchmark {
+
+    private final PostCreate postCreate = PostCreate.builder()
+        .title("호돌맨의 요절복통 개발쇼 제목입니다.")
+        .content("내용입니다.")
+        .build();
+
+    @Benchmark
+    public PostCreate validate() {
+        postCreate.validate();
+        return postCreate;
+    }
+}
@@ -0,0 +1,44 @@
+package com.hodol.api.response;
+
+import com.hodol.api.domain.Post;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * PostResponse 생성 비용 (빌더 생성자의 제목 자르기 포함)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PostResponseBenchmark {
+
+    private Post post;
+
+    @Setup
+    public void setUp() {
+        post = Post.builder()
+            .title("호돌맨의 요절복통 개발쇼 제목입니다.")
+            .content("내용입니다.".repeat(100))
+            .build();
+    }
+
+    @Benchmark
+    public PostResponse builder() {
+        return PostResponse.builder()
+            .id(1L)
+            .title(post.getTitle())
+            .content(post.getContent())
+            .build();
+    }
+
+    @Benchmark
+    public PostResponse fromEntity() {
+        return new PostResponse(post);
+    }
+}
@@ -0,0 +1,72 @@
+package com.hodol.api.response;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * GET /posts/{id} 단건 응답: 요청마다 직렬화 + gzip 하는 경우와 미리 압축해 둔 바이트를 쓰는 경우 비교
+ * <p>
+ * 셋업 시 본문 길이(JSON / gzip)를 출력한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PostResponseCompressionBenchmark {
+
+    @Param({"100", "2000", "20000"})
+    private int contentLength;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private PostResponse post;
+    private byte[] precompressed;
+
+    @Setup
+    public void setUp() throws IOException {
+        String content = "호돌맨의 블로그 내용입니다. ".repeat(contentLength / 16 + 1).substring(0, contentLength);
+        post = PostResponse.builder()
+            .id(1L)
+            .title("제목입니다")
+            .content(content)
+            .version(0L)
+            .build();
+        byte[] json = objectMapper.writeValueAsBytes(post);
+        precompressed = gzip(json);
+
+        System.out.printf("%ncontentLength=%d json=%d bytes gzip=%d bytes%n", contentLength, json.length, precompressed.length);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return objectMapper.writeValueAsBytes(post);
+    }
+
+    @Benchmark
+    public byte[] serializeAndGzip() throws IOException {
+        return gzip(objectMapper.writeValueAsBytes(post));
+    }
+
+    @Benchmark
+    public byte[] precompressed() {
+        return precompressed;
+    }
+
+    private static byte[] gzip(byte[] json) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, json.length / 3));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        }
+        return out.toByteArray();
+    }
+}
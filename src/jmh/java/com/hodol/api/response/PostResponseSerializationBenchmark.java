@@ -0,0 +1,47 @@
+package com.hodol.api.response;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * GET /posts 목록 응답의 Jackson 직렬화 비용 (size 별)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PostResponseSerializationBenchmark {
+
+    @Param({"10", "100", "2000"})
+    private int size;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private List<PostResponse> posts;
+
+    @Setup
+    public void setUp() {
+        posts = LongStream.range(0, size)
+            .mapToObj(i -> PostResponse.builder()
+                .id(i)
+                .title("제목 " + i)
+                .content("내용입니다. ".repeat(50) + i)
+                .build())
+            .toList();
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(posts);
+    }
+}
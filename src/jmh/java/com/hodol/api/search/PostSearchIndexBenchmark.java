@@ -0,0 +1,60 @@
+package com.hodol.api.search;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.random.RandomGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * 색인 크기에 따른 검색 지연 시간
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PostSearchIndexBenchmark {
+
+    private static final String[] WORDS = {
+        "스프링", "부트", "자바", "코틀린", "게시판", "호돌맨", "요절복통", "개발쇼", "테스트", "배포",
+        "spring", "jpa", "querydsl", "cache", "index", "search", "benchmark", "gradle"
+    };
+
+    @Param({"1000", "10000", "100000"})
+    private int documents;
+
+    private PostSearchIndex index;
+
+    @Setup
+    public void setUp() {
+        RandomGenerator random = RandomGenerator.of("L64X128MixRandom");
+        index = new PostSearchIndex(null);
+
+        for (long id = 1; id <= documents; id++) {
+            index.index(id, sentence(random, 4), sentence(random, 40));
+        }
+    }
+
+    @Benchmark
+    public List<Long> singleTerm() {
+        return index.search("호돌맨", 0, 10);
+    }
+
+    @Benchmark
+    public List<Long> multiTerm() {
+        return index.search("스프링 부트 게시판", 0, 10);
+    }
+
+    private static String sentence(RandomGenerator random, int words) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            sb.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+        }
+        return sb.toString();
+    }
+}
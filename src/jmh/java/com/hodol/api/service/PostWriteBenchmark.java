@@ -0,0 +1,76 @@
+package com.hodol.api.service;
+
+import com.hodol.HodolApplication;
+import com.hodol.api.repository.PostRepository;
+import com.hodol.api.request.PostCreate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * 글 1건당 저장 처리량: write() 반복 vs writeAll() 배치
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class PostWriteBenchmark {
+
+    private static final int POSTS = 1000;
+
+    private ConfigurableApplicationContext context;
+    private PostService postService;
+    private PostRepository postRepository;
+
+    private List<PostCreate> postCreates;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(HodolApplication.class)
+            .web(WebApplicationType.NONE)
+            .run("--spring.datasource.url=jdbc:h2:mem:write", "--logging.level.root=WARN");
+        postService = context.getBean(PostService.class);
+        postRepository = context.getBean(PostRepository.class);
+
+        postCreates = IntStream.range(0, POSTS)
+            .mapToObj(i -> PostCreate.builder()
+                .title("제목 " + i)
+                .content("내용입니다. ".repeat(20))
+                .build())
+            .toList();
+    }
+
+    @TearDown(Level.Iteration)
+    public void clean() {
+        postRepository.deleteAllInBatch();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(POSTS)
+    public void single() {
+        postCreates.forEach(postService::write);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(POSTS)
+    public void bulk() {
+        postService.writeAll(postCreates);
+    }
+}
@@ -0,0 +1,207 @@
+package com.hodol.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+/**
+ * 느린 클라이언트 연결을 얼마나 버티는지: 서블릿(MVC + JPA) vs 리액티브(WebFlux + R2DBC)
+ * <p>
+ * 이미 떠 있는 서버(loadtest.baseUrl)에 글을 채운 뒤, /posts/export 를 요청하고 응답을 읽지 않는 연결을 단계별로 늘린다.
+ * 단계마다 서버의 힙 사용량과 스레드 수(/actuator/metrics)를 읽어 힙 1GB 당 연결 수를 JSON 으로 남긴다.
+ * 두 서버는 같은 -Xmx 로 띄워야 비교가 된다. 서블릿 서버는 --hodol.post.rate-limit.enabled=false 로 띄운다 (한 IP 에서 연결을 몰아서 연다).
+ */
+public class ConnectionDensityTest {
+
+    private static final double GB = 1024.0 * 1024 * 1024;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient = HttpClient.newBuilder()
+        .connectTimeout(Duration.ofSeconds(5))
+        .build();
+
+    private final URI baseUri;
+    private final int posts;
+    private final int[] steps;
+    private final Duration settle;
+
+    private final List<Socket> sockets = new ArrayList<>();
+
+    ConnectionDensityTest(String baseUrl) {
+        this.baseUri = URI.create(baseUrl);
+        this.posts = Integer.getInteger("loadtest.posts", 2000);
+        this.steps = Arrays.stream(System.getProperty("loadtest.connections", "500,1000,2000,4000").split(","))
+            .map(String::trim)
+            .mapToInt(Integer::parseInt)
+            .toArray();
+        this.settle = Duration.ofSeconds(Integer.getInteger("loadtest.settle", 5));
+    }
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = System.getProperty("loadtest.baseUrl");
+        if (baseUrl == null) {
+            throw new IllegalArgumentException("-Ploadtest.baseUrl=http://localhost:8080 (또는 :8081 리액티브) 를 지정해주세요.");
+        }
+
+        ConnectionDensityTest test = new ConnectionDensityTest(baseUrl);
+        try {
+            test.seed();
+            Map<String, Object> report = test.run();
+
+            Path path = Path.of(System.getProperty("loadtest.report", "build/reports/loadtest/connections.json"));
+            Files.createDirectories(path.toAbsolutePath().getParent());
+            test.objectMapper.writerWithDefaultPrettyPrinter().writeValue(path.toFile(), report);
+
+            System.out.println(test.objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(report));
+            System.out.println("report: " + path.toAbsolutePath());
+        } finally {
+            test.closeAll();
+        }
+    }
+
+    // 두 서버에 모두 있는 POST /posts 로 채운다. 응답 본문이 소켓 버퍼보다 커야 서버 쪽 쓰기가 막힌다
+    void seed() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<HttpResponse<Void>>> futures = IntStream.range(0, posts)
+                .mapToObj(i -> executor.submit(() -> httpClient.send(HttpRequest.newBuilder(baseUri.resolve("/posts"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(Map.of(
+                            "title", "제목 " + i,
+                            "content", "느린 클라이언트 테스트 내용입니다. ".repeat(50) + i))))
+                        .build(),
+                    HttpResponse.BodyHandlers.discarding())))
+                .toList();
+
+            for (Future<HttpResponse<Void>> future : futures) {
+                if (future.get().statusCode() != 200) {
+                    throw new IllegalStateException("seed failed: " + future.get().statusCode());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    Map<String, Object> run() throws Exception {
+        Map<String, Object> baseline = sample();
+        double baselineHeap = (double) baseline.get("heapUsedBytes");
+
+        List<Map<String, Object>> results = new ArrayList<>();
+        for (int target : steps) {
+            int failed = open(target - sockets.size());
+            Thread.sleep(settle.toMillis());
+
+            Map<String, Object> sample = sample();
+            double heapDelta = Math.max(1, (double) sample.get("heapUsedBytes") - baselineHeap);
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("connections", sockets.size());
+            result.put("failedToOpen", failed);
+            result.put("respondedPercent", responded());
+            result.putAll(sample);
+            result.put("heapDeltaBytes", (long) heapDelta);
+            result.put("connectionsPerGbHeap", Math.round(sockets.size() / (heapDelta / GB)));
+            results.add(result);
+        }
+
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("baseUrl", baseUri.toString());
+        config.put("posts", posts);
+        config.put("steps", steps);
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("config", config);
+        report.put("baseline", baseline);
+        report.put("steps", results);
+        return report;
+    }
+
+    // 요청만 보내고 응답은 읽지 않는다 (느리게 읽는 클라이언트)
+    private int open(int count) {
+        int failed = 0;
+        byte[] request = ("GET /posts/export HTTP/1.1\r\nHost: " + baseUri.getHost() + "\r\n\r\n")
+            .getBytes(StandardCharsets.US_ASCII);
+
+        for (int i = 0; i < count; i++) {
+            try {
+                Socket socket = new Socket();
+                socket.setReceiveBufferSize(4096);
+                socket.connect(new InetSocketAddress(baseUri.getHost(), baseUri.getPort()), 5000);
+                OutputStream out = socket.getOutputStream();
+                out.write(request);
+                out.flush();
+                sockets.add(socket);
+            } catch (IOException e) {
+                failed++;
+            }
+        }
+        return failed;
+    }
+
+    // 마지막에 연 연결 20 개 중 1 초 안에 상태 줄을 받은 비율(%). 처리할 스레드가 모자라면 대기열에서 기다린다
+    private int responded() {
+        int responded = 0;
+        List<Socket> probe = sockets.subList(Math.max(0, sockets.size() - 20), sockets.size());
+        for (Socket socket : probe) {
+            try {
+                socket.setSoTimeout(1000);
+                String statusLine = new BufferedReader(new InputStreamReader(socket.getInputStream(),
+                    StandardCharsets.US_ASCII)).readLine();
+                if (statusLine != null && statusLine.startsWith("HTTP/1.1 200")) {
+                    responded++;
+                }
+            } catch (IOException ignored) {
+                // 시간 안에 응답이 시작되지 않았다
+            }
+        }
+        return responded * 100 / Math.max(1, probe.size());
+    }
+
+    private Map<String, Object> sample() throws Exception {
+        Map<String, Object> sample = new LinkedHashMap<>();
+        sample.put("heapUsedBytes", metric("jvm.memory.used?tag=area:heap"));
+        sample.put("liveThreads", metric("jvm.threads.live"));
+        return sample;
+    }
+
+    private double metric(String name) throws Exception {
+        HttpResponse<String> response = httpClient.send(
+            HttpRequest.newBuilder(baseUri.resolve("/actuator/metrics/" + name)).GET().build(),
+            HttpResponse.BodyHandlers.ofString());
+        JsonNode measurements = objectMapper.readTree(response.body()).get("measurements");
+        return measurements.get(0).get("value").asDouble();
+    }
+
+    private void closeAll() {
+        for (Socket socket : sockets) {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+                // 닫는 중 오류는 무시한다
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.hodol.loadtest;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 워커 스레드 하나가 쓰는 엔드포인트별 응답 시간 기록 (스레드 간 공유하지 않고 끝난 뒤 합친다)
+ */
+class LatencyRecorder {
+
+    private long[] nanos = new long[1024];
+    private int count;
+    private int errors;
+
+    // 그중 503 (속도 제한, 동시 처리 한도로 거절된 요청)
+    private int rejected;
+
+    /**
+     * @param status 응답 상태 코드. 응답을 받지 못했으면 0
+     */
+    void record(long elapsedNanos, int status) {
+        if (count == nanos.length) {
+            nanos = Arrays.copyOf(nanos, count * 2);
+        }
+        nanos[count++] = elapsedNanos;
+        if (status == 0 || status >= 400) {
+            errors++;
+        }
+        if (status == 503) {
+            rejected++;
+        }
+    }
+
+    void merge(LatencyRecorder other) {
+        if (count + other.count > nanos.length) {
+            nanos = Arrays.copyOf(nanos, count + other.count);
+        }
+        System.arraycopy(other.nanos, 0, nanos, count, other.count);
+        count += other.count;
+        errors += other.errors;
+        rejected += other.rejected;
+    }
+
+    Map<String, Object> summary(double seconds) {
+        long[] sorted = Arrays.copyOf(nanos, count);
+        Arrays.sort(sorted);
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("requests", count);
+        summary.put("errors", errors);
+        summary.put("rejected", rejected);
+        summary.put("throughput", Math.round(count / seconds * 10) / 10.0);
+        summary.put("p50Ms", millis(percentile(sorted, 0.50)));
+        summary.put("p95Ms", millis(percentile(sorted, 0.95)));
+        summary.put("p99Ms", millis(percentile(sorted, 0.99)));
+        summary.put("maxMs", millis(sorted.length == 0 ? 0 : sorted[sorted.length - 1]));
+        return summary;
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 10_000.0) / 100.0;
+    }
+}
@@ -0,0 +1,264 @@
+package com.hodol.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hodol.HodolApplication;
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * /posts 엔드포인트 부하 테스트
+ * <p>
+ * loadtest.baseUrl 이 없으면 애플리케이션을 H2 로 직접 띄운 뒤, 글 N 개를 넣고
+ * 작성/조회/목록/수정/삭제 요청을 비율대로 섞어 보낸다. 엔드포인트별 p50/p95/p99/max, 처리량, 오류/503 수를 JSON 으로 남긴다.
+ * 한 클라이언트가 보내는 부하이므로 직접 띄울 때는 속도 제한을 끈다 (baseUrl 서버도 끄고 띄워야 한다).
+ */
+public class PostLoadTest {
+
+    enum Operation {
+        CREATE, GET, LIST, EDIT, DELETE
+    }
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .connectTimeout(Duration.ofSeconds(5))
+        .build();
+
+    private final String baseUrl;
+    private final int posts;
+    private final int concurrency;
+    private final int listSize;
+    private final Duration warmup;
+    private final Duration duration;
+    private final Map<Operation, Integer> mix;
+
+    // 조회/수정은 앞쪽 80% id, 삭제는 뒤쪽 20% id 를 하나씩 소비한다 (삭제된 글을 조회하지 않도록)
+    // 삭제할 id 는 작업자마다 나눠 가진다 (작업자 i 는 readableIds + i, + concurrency, ...). 다른 작업자가 지운 글을 지우지 않는다
+    private long[] ids;
+    private int readableIds;
+    private int[] nextDeleteIndex;
+
+    PostLoadTest(String baseUrl) {
+        this.baseUrl = baseUrl;
+        this.posts = Integer.getInteger("loadtest.posts", 10_000);
+        this.concurrency = Integer.getInteger("loadtest.concurrency", 32);
+        this.listSize = Integer.getInteger("loadtest.listSize", 10);
+        this.warmup = Duration.ofSeconds(Integer.getInteger("loadtest.warmup", 10));
+        this.duration = Duration.ofSeconds(Integer.getInteger("loadtest.duration", 60));
+        this.mix = parseMix(System.getProperty("loadtest.mix", "create:10,get:60,list:20,edit:5,delete:5"));
+    }
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = System.getProperty("loadtest.baseUrl");
+        ConfigurableApplicationContext context = null;
+
+        if (baseUrl == null) {
+            String profiles = System.getProperty("loadtest.profiles", "");
+            context = new SpringApplicationBuilder(HodolApplication.class)
+                .profiles(profiles.isBlank() ? new String[0] : profiles.split(","))
+                .run("--server.port=0", "--logging.level.root=WARN", "--hodol.post.rate-limit.enabled=false");
+            baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        }
+
+        try {
+            PostLoadTest loadTest = new PostLoadTest(baseUrl);
+            loadTest.seed();
+            Map<String, Object> report = loadTest.run();
+
+            Path path = Path.of(System.getProperty("loadtest.report", "build/reports/loadtest/report.json"));
+            Files.createDirectories(path.toAbsolutePath().getParent());
+            loadTest.objectMapper.writerWithDefaultPrettyPrinter().writeValue(path.toFile(), report);
+
+            System.out.println(loadTest.objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(report));
+            System.out.println("report: " + path.toAbsolutePath());
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    void seed() throws Exception {
+        for (int start = 0; start < posts; start += 1000) {
+            List<Map<String, String>> chunk = IntStream.range(start, Math.min(posts, start + 1000))
+                .mapToObj(i -> Map.of("title", "제목 " + i, "content", "부하 테스트 내용입니다. ".repeat(20) + i))
+                .toList();
+
+            HttpResponse<Void> response = httpClient.send(json("/posts/bulk", "POST", chunk),
+                HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("seed failed: " + response.statusCode());
+            }
+        }
+
+        // 전체 내보내기로 실제 id 를 모은다
+        List<Long> collected = new ArrayList<>();
+        HttpRequest export = HttpRequest.newBuilder(URI.create(baseUrl + "/posts/export")).GET().build();
+        HttpResponse<InputStream> response = httpClient.send(export, HttpResponse.BodyHandlers.ofInputStream());
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(response.body(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank()) {
+                    collected.add(objectMapper.readTree(line).get("id").asLong());
+                }
+            }
+        }
+
+        ids = collected.stream().mapToLong(Long::longValue).toArray();
+        readableIds = Math.max(1, (int) (ids.length * 0.8));
+        nextDeleteIndex = IntStream.range(0, concurrency)
+            .map(worker -> readableIds + worker)
+            .toArray();
+    }
+
+    Map<String, Object> run() throws Exception {
+        drive(warmup);
+        long startedAt = System.nanoTime();
+        List<Map<Operation, LatencyRecorder>> results = drive(duration);
+        double seconds = (System.nanoTime() - startedAt) / 1e9;
+
+        Map<Operation, LatencyRecorder> merged = new EnumMap<>(Operation.class);
+        LatencyRecorder total = new LatencyRecorder();
+        for (Map<Operation, LatencyRecorder> result : results) {
+            result.forEach((operation, recorder) -> {
+                merged.computeIfAbsent(operation, o -> new LatencyRecorder()).merge(recorder);
+                total.merge(recorder);
+            });
+        }
+
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        merged.forEach((operation, recorder) -> endpoints.put(operation.name().toLowerCase(), recorder.summary(seconds)));
+
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("baseUrl", baseUrl);
+        config.put("posts", ids.length);
+        config.put("concurrency", concurrency);
+        config.put("durationSeconds", duration.toSeconds());
+        config.put("mix", mix);
+        config.put("javaVersion", Runtime.version().toString());
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("config", config);
+        report.put("endpoints", endpoints);
+        report.put("total", total.summary(seconds));
+        return report;
+    }
+
+    private List<Map<Operation, LatencyRecorder>> drive(Duration length) throws Exception {
+        long deadline = System.nanoTime() + length.toNanos();
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        try {
+            List<Future<Map<Operation, LatencyRecorder>>> futures = new ArrayList<>();
+            for (int i = 0; i < concurrency; i++) {
+                int worker = i;
+                futures.add(executor.submit(() -> work(worker, deadline)));
+            }
+
+            List<Map<Operation, LatencyRecorder>> results = new ArrayList<>();
+            for (Future<Map<Operation, LatencyRecorder>> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Map<Operation, LatencyRecorder> work(int worker, long deadline) {
+        Map<Operation, LatencyRecorder> recorders = new EnumMap<>(Operation.class);
+
+        while (System.nanoTime() < deadline) {
+            Operation operation = nextOperation(worker);
+            HttpRequest request = request(worker, operation);
+
+            long startedAt = System.nanoTime();
+            int status;
+            try {
+                status = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            } catch (Exception e) {
+                status = 0;
+            }
+
+            recorders.computeIfAbsent(operation, o -> new LatencyRecorder())
+                .record(System.nanoTime() - startedAt, status);
+        }
+
+        return recorders;
+    }
+
+    private Operation nextOperation(int worker) {
+        int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+        int pick = ThreadLocalRandom.current().nextInt(total);
+
+        for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+            pick -= entry.getValue();
+            if (pick < 0) {
+                // 삭제할 글이 떨어지면 조회로 대신한다
+                if (entry.getKey() == Operation.DELETE && nextDeleteIndex[worker] >= ids.length) {
+                    return Operation.GET;
+                }
+                return entry.getKey();
+            }
+        }
+        return Operation.GET;
+    }
+
+    private HttpRequest request(int worker, Operation operation) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long id = ids[random.nextInt(readableIds)];
+
+        return switch (operation) {
+            case CREATE -> json("/posts", "POST", Map.of("title", "새 글", "content", "부하 테스트 작성 " + random.nextInt()));
+            case GET -> HttpRequest.newBuilder(URI.create(baseUrl + "/posts/" + id)).GET().build();
+            case LIST -> HttpRequest.newBuilder(URI.create(baseUrl + "/posts?page=" + (random.nextInt(10) + 1)
+                + "&size=" + listSize)).GET().build();
+            case EDIT -> json("/posts/" + id, "PATCH", Map.of("title", "수정된 글", "content", "수정 " + random.nextInt()));
+            case DELETE -> {
+                long deleteId = ids[nextDeleteIndex[worker]];
+                nextDeleteIndex[worker] += concurrency;
+                yield HttpRequest.newBuilder(URI.create(baseUrl + "/posts/" + deleteId)).DELETE().build();
+            }
+        };
+    }
+
+    private HttpRequest json(String path, String method, Object body) {
+        try {
+            return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                .build();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Map<Operation, Integer> parseMix(String value) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String part : value.split(",")) {
+            String[] pair = part.trim().split(":");
+            mix.put(Operation.valueOf(pair[0].trim().toUpperCase()), Integer.parseInt(pair[1].trim()));
+        }
+        return mix;
+    }
+}
@@ -0,0 +1,25 @@
+package com.hodol.api.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@EnableCaching
+@Configuration
+public class CacheConfig {
+
+    public static final String POST = "post";
+
+    @Bean
+    public CacheManager cacheManager(@Value("${hodol.cache.post.spec}") String postSpec) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(POST);
+        cacheManager.setCacheSpecification(postSpec);
+
+        // 트랜잭션 안에서의 evict/put 은 커밋 이후에 반영된다 (롤백되면 캐시도 그대로)
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
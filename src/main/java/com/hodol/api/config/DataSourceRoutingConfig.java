@@ -0,0 +1,125 @@
+package com.hodol.api.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.time.Duration;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.HttpMethod;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * hodol.datasource.replica.url 이 있으면 읽기 전용 트랜잭션을 replica 로 보낸다
+ * <p>
+ * 복제 지연 때문에 방금 쓴 글이 안 보이지 않도록, 쓰기에 성공한 클라이언트(X-Client-Id, 없으면 IP)의 요청은
+ * read-your-writes-window 동안 primary 에서 읽는다. replica 에서 읽은 값은 2차 캐시에 넣지 않는다.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "hodol.datasource.replica", name = "url")
+public class DataSourceRoutingConfig implements WebMvcConfigurer {
+
+    public static final String CLIENT_ID_HEADER = "X-Client-Id";
+
+    private final Cache<String, Boolean> recentWriters;
+
+    public DataSourceRoutingConfig(@Value("${hodol.datasource.read-your-writes-window:PT2S}") Duration window) {
+        this.recentWriters = Caffeine.newBuilder()
+            .expireAfterWrite(window)
+            .maximumSize(100_000)
+            .build();
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder()
+            .type(HikariDataSource.class)
+            .build();
+    }
+
+    @Bean
+    @ConfigurationProperties("hodol.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(@Value("${hodol.datasource.replica.url}") String url,
+        @Value("${hodol.datasource.replica.username:}") String username,
+        @Value("${hodol.datasource.replica.password:}") String password) {
+        return DataSourceBuilder.create()
+            .type(HikariDataSource.class)
+            .url(url)
+            .username(username)
+            .password(password)
+            .build();
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+        @Qualifier("replicaDataSource") DataSource replicaDataSource) {
+        return new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(primaryDataSource, replicaDataSource));
+    }
+
+    /**
+     * replica 에서 읽은 값으로 2차 캐시를 채우지 않도록 한다 (ReplicaRoutingTransactionManager)
+     */
+    @Bean
+    public PlatformTransactionManager transactionManager(
+        ObjectProvider<TransactionManagerCustomizers> transactionManagerCustomizers) {
+        ReplicaRoutingTransactionManager transactionManager = new ReplicaRoutingTransactionManager();
+        transactionManagerCustomizers.ifAvailable(customizers -> customizers.customize(transactionManager));
+        return transactionManager;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new ReadYourWritesInterceptor())
+            .addPathPatterns("/posts/**", "/posts");
+    }
+
+    private class ReadYourWritesInterceptor implements AsyncHandlerInterceptor {
+
+        @Override
+        public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+            if (recentWriters.getIfPresent(clientKey(request)) != null) {
+                ReplicaRoutingDataSource.pinToPrimary();
+            }
+            return true;
+        }
+
+        @Override
+        public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+            Object handler) {
+            ReplicaRoutingDataSource.unpin();
+        }
+
+        @Override
+        public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+            Exception ex) {
+            ReplicaRoutingDataSource.unpin();
+
+            if (!HttpMethod.GET.matches(request.getMethod()) && ex == null && response.getStatus() < 400) {
+                recentWriters.put(clientKey(request), Boolean.TRUE);
+            }
+        }
+
+        private String clientKey(HttpServletRequest request) {
+            String clientId = request.getHeader(CLIENT_ID_HEADER);
+            return clientId != null ? clientId : request.getRemoteAddr();
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.hodol.api.config;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "hodol.post")
+public class PostProperties {
+
+    private final Bulk bulk = new Bulk();
+
+    private final Export export = new Export();
+
+    private final BatchGet batchGet = new BatchGet();
+
+    private final Precompressed precompressed = new Precompressed();
+
+    private final Views views = new Views();
+
+    private final Snapshot snapshot = new Snapshot();
+
+    private final Ingest ingest = new Ingest();
+
+    private final RateLimit rateLimit = new RateLimit();
+
+    private final Stream stream = new Stream();
+
+    @Getter
+    @Setter
+    public static class Bulk {
+
+        // 한 번에 flush 하는 건수 (= JDBC 배치 크기)
+        private int chunkSize = 500;
+
+        // 요청 한 번에 받을 수 있는 최대 건수
+        private int maxSize = 10000;
+    }
+
+    @Getter
+    @Setter
+    public static class Export {
+
+        // 한 번에 조회하고 내보내는 건수 (조회 후 영속성 컨텍스트에서 분리한다)
+        private int chunkSize = 500;
+    }
+
+    @Getter
+    @Setter
+    public static class BatchGet {
+
+        // where id in (...) 한 번에 넣는 id 수
+        private int chunkSize = 500;
+
+        // 요청 한 번에 조회할 수 있는 최대 id 수
+        private int maxSize = 1000;
+    }
+
+    @Getter
+    @Setter
+    public static class Precompressed {
+
+        // 단건 조회 응답을 gzip 된 JSON 으로 미리 만들어 두고 그대로 내보낸다 (Accept-Encoding: gzip 인 경우)
+        private boolean enabled = true;
+
+        // 보관할 압축 응답의 총 크기 (byte)
+        private long maximumBytes = 64 * 1024 * 1024;
+    }
+
+    @Getter
+    @Setter
+    public static class Views {
+
+        // 모아 둔 조회수를 DB 에 반영하는 주기 (@Scheduled 는 hodol.post.views.flush-interval 을 직접 읽는다)
+        private Duration flushInterval = Duration.ofSeconds(5);
+
+        // 많이 본 글 목록의 최대 크기
+        private int mostViewedMaxSize = 100;
+    }
+
+    @Getter
+    @Setter
+    public static class Snapshot {
+
+        // 최신 글 목록을 메모리에 두고 앞쪽 페이지(커서 포함)를 DB 없이 응답한다
+        private boolean enabled = true;
+
+        // 보관할 최신 글 수 (size=10 이면 10 페이지까지)
+        private int size = 100;
+    }
+
+    @Getter
+    @Setter
+    public static class Ingest {
+
+        // POST /posts 를 로컬 로그에 쓰고 202 로 응답한 뒤, 백그라운드에서 모아서 DB 에 넣는다
+        private boolean enabled = false;
+
+        // 로그 세그먼트와 체크포인트를 두는 디렉터리
+        private String directory = "./data/ingest";
+
+        // 세그먼트 파일 하나의 크기 (byte, 메모리 맵 단위)
+        private int segmentSize = 64 * 1024 * 1024;
+
+        // 모아 둔 쓰기를 fsync 하는 간격 (요청은 자기 레코드가 fsync 될 때까지 기다린다)
+        private Duration syncInterval = Duration.ofMillis(2);
+
+        // fsync 를 기다리는 최대 시간. 넘어도 로그에 쓴 글은 DB 에 들어가므로 같은 id 로 202 (hodol.post.ingest.sync.timeout)
+        private Duration syncTimeout = Duration.ofSeconds(1);
+
+        // DB 에 한 트랜잭션(= JDBC 배치)으로 넣는 최대 건수
+        private int batchSize = 500;
+
+        // DB 에 아직 넣지 못한 건수가 이보다 많으면 받지 않는다 (503)
+        private long maxPending = 100_000;
+    }
+
+    @Getter
+    @Setter
+    public static class RateLimit {
+
+        // /posts 요청을 비용만큼 토큰 버킷(클라이언트별 + 주소별 + 전체)에서 빼고, 동시 처리 수를 AIMD 로 조절한다
+        private boolean enabled = true;
+
+        // 클라이언트(접속 주소 + X-Client-Id 헤더)마다 초당 비용과 최대 버스트
+        private double clientRate = 200;
+        private int clientBurst = 400;
+
+        // 접속 주소(remoteAddr)마다 초당 비용과 최대 버스트. X-Client-Id 를 바꿔 보내도 이 버킷은 함께 빠진다
+        private double addressRate = 1000;
+        private int addressBurst = 2000;
+
+        // 서버 전체의 초당 비용과 최대 버스트
+        private double globalRate = 5000;
+        private int globalBurst = 10000;
+
+        // 목록 / 여러 글 조회 요청은 기본 비용 1 에 size(id 수) 를 이 값으로 나눈 만큼 더한다 (size=2000 이면 101)
+        private int listItemsPerCost = 20;
+
+        // 전체 내보내기, 대량 작성 요청의 비용
+        private int exportCost = 100;
+        private int bulkCost = 100;
+
+        // 동시 처리 수: 시작값, 하한, 상한. 이보다 느린 응답이 오면 한도를 줄인다
+        private int initialConcurrency = 40;
+        private int minConcurrency = 4;
+        private int maxConcurrency = 400;
+        private Duration latencyThreshold = Duration.ofMillis(500);
+    }
+
+    @Getter
+    @Setter
+    public static class Stream {
+
+        // 최근 변경 이벤트를 보관하는 링 버퍼 크기 (Last-Event-ID 로 이어 받을 수 있는 범위)
+        private int bufferSize = 4096;
+
+        // 구독자마다 보내지 못하고 밀려 있을 수 있는 이벤트 수. 넘치면 끊는다 (buffer-size 보다 크면 buffer-size)
+        private int queueSize = 1024;
+
+        // 이벤트를 구독자에게 보내는 스레드 수 (연결마다 스레드를 두지 않는다). 모두 막힌 쓰기에 잡혀 있으면 새 구독은 503
+        private int writerThreads = 16;
+
+        // 한 번의 소켓 쓰기를 기다리는 시간. 넘기면 읽지 않는 클라이언트로 보고 끊는다 (막힌 쓰기는 쓰기 스레드 하나를 붙잡는다)
+        private Duration writeTimeout = Duration.ofSeconds(5);
+
+        // 동시에 받을 수 있는 구독자 수
+        private int maxSubscribers = 10000;
+
+        // 연결 유지 시간. 끊기면 클라이언트(EventSource)가 Last-Event-ID 로 다시 연결한다
+        private Duration timeout = Duration.ofMinutes(30);
+
+        // 끊긴 연결을 찾고 프록시가 연결을 닫지 않도록 보내는 주석 이벤트 주기 (@Scheduled 는 직접 읽는다)
+        private Duration heartbeatInterval = Duration.ofSeconds(15);
+    }
+}
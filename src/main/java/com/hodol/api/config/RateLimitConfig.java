@@ -0,0 +1,253 @@
+package com.hodol.api.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hodol.api.exception.ServiceUnavailable;
+import com.hodol.api.exception.TooManyRequests;
+import com.hodol.api.ratelimit.AdaptiveConcurrencyLimit;
+import com.hodol.api.ratelimit.TokenBucket;
+import com.hodol.api.request.PostBatchGet;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.lang.reflect.Type;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.mvc.method.annotation.RequestBodyAdviceAdapter;
+
+/**
+ * /posts 요청의 속도 제한과 동시 처리 수 제한 (hodol.post.rate-limit)
+ * <p>
+ * 요청마다 비용(목록은 size, 여러 글 조회는 id 수에 비례)을 매겨 클라이언트별 / 주소별 / 전체 토큰 버킷에서 빼고,
+ * 모자라면 429 와 Retry-After 로 돌려보낸다.
+ * <p>
+ * 클라이언트는 접속 주소(remoteAddr)로 나눈다. X-Client-Id 는 누구나 바꿔 보낼 수 있으므로 주소 버킷 안의 하위 키로만 쓴다
+ * (같은 주소 뒤의 클라이언트끼리 나눠 쓰게 할 뿐, 주소 버킷은 항상 함께 빠진다). 프록시 뒤에 두면
+ * server.forward-headers-strategy 로 remoteAddr 를 실제 클라이언트 주소로 맞춘다.
+ * <p>
+ * 통과한 요청은 AIMD 로 조절되는 동시 처리 한도 안에서만 처리하고, 한도를 넘으면 커넥션 풀을 기다리지 않고 503 으로 돌려보낸다.
+ * 상태는 모두 CAS 로만 바뀐다 (락 없음).
+ */
+@Configuration
+@ConditionalOnProperty(name = "hodol.post.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitConfig implements WebMvcConfigurer {
+
+    private static final String STARTED_AT = RateLimitConfig.class.getName() + ".STARTED_AT";
+    private static final int DEFAULT_LIST_SIZE = 10;
+
+    private final PostProperties.RateLimit properties;
+    private final TokenBucket globalBucket;
+    private final Cache<String, TokenBucket> clientBuckets;
+    private final Cache<String, TokenBucket> addressBuckets;
+    private final AdaptiveConcurrencyLimit concurrencyLimit;
+
+    private final Counter clientRejected;
+    private final Counter addressRejected;
+    private final Counter globalRejected;
+    private final Counter concurrencyRejected;
+
+    public RateLimitConfig(PostProperties postProperties, MeterRegistry meterRegistry) {
+        this.properties = postProperties.getRateLimit();
+        this.globalBucket = new TokenBucket(properties.getGlobalRate(), properties.getGlobalBurst());
+        this.clientBuckets = Caffeine.newBuilder()
+            .expireAfterAccess(Duration.ofMinutes(5))
+            .maximumSize(100_000)
+            .build();
+        this.addressBuckets = Caffeine.newBuilder()
+            .expireAfterAccess(Duration.ofMinutes(5))
+            .maximumSize(100_000)
+            .build();
+        this.concurrencyLimit = new AdaptiveConcurrencyLimit(properties.getInitialConcurrency(),
+            properties.getMinConcurrency(), properties.getMaxConcurrency(), properties.getLatencyThreshold().toNanos());
+
+        this.clientRejected = rejected(meterRegistry, "client");
+        this.addressRejected = rejected(meterRegistry, "address");
+        this.globalRejected = rejected(meterRegistry, "global");
+        this.concurrencyRejected = rejected(meterRegistry, "concurrency");
+
+        Gauge.builder("hodol.ratelimit.concurrency.limit", concurrencyLimit, AdaptiveConcurrencyLimit::getLimit)
+            .description("현재 동시 처리 한도 (AIMD)")
+            .register(meterRegistry);
+        Gauge.builder("hodol.ratelimit.concurrency.in-flight", concurrencyLimit, AdaptiveConcurrencyLimit::getInFlight)
+            .description("처리 중인 요청 수")
+            .register(meterRegistry);
+        Gauge.builder("hodol.ratelimit.global.available", globalBucket, bucket -> bucket.available(System.nanoTime()))
+            .description("전체 토큰 버킷에 남은 토큰")
+            .register(meterRegistry);
+        Gauge.builder("hodol.ratelimit.clients", clientBuckets, Cache::estimatedSize)
+            .description("토큰 버킷을 가진 클라이언트 수")
+            .register(meterRegistry);
+        Gauge.builder("hodol.ratelimit.addresses", addressBuckets, Cache::estimatedSize)
+            .description("토큰 버킷을 가진 접속 주소 수")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // 다른 인터셉터(가상 스레드 동시 처리 제한 등)보다 먼저 거절한다
+        registry.addInterceptor(new RateLimitInterceptor())
+            .addPathPatterns("/posts/**", "/posts")
+            .order(-1);
+    }
+
+    /**
+     * 요청 비용: 단건 1, 목록은 1 + size / listItemsPerCost, 내보내기/대량 작성은 설정값.
+     * 여러 글 조회는 여기서 1 만 매기고, 본문을 읽은 뒤 id 수 / listItemsPerCost 를 더 뺀다 (BatchGetCostAdvice)
+     */
+    int cost(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+
+        if (path.equals("/posts/export")) {
+            return properties.getExportCost();
+        }
+        if (path.equals("/posts/bulk")) {
+            return properties.getBulkCost();
+        }
+        if (HttpMethod.GET.matches(request.getMethod()) && (path.equals("/posts") || path.equals("/posts/summaries"))) {
+            return 1 + listSize(request.getParameter("size")) / properties.getListItemsPerCost();
+        }
+        return 1;
+    }
+
+    int batchGetCost(PostBatchGet request) {
+        return request.getIds() == null ? 0 : request.getIds().size() / properties.getListItemsPerCost();
+    }
+
+    /**
+     * 클라이언트(주소 + X-Client-Id) -> 주소 -> 전체 버킷 순으로 비용을 뺀다. 모자라면 429 (Retry-After)
+     */
+    private void acquire(HttpServletRequest request, HttpServletResponse response, int cost, long now) {
+        String address = request.getRemoteAddr();
+        String clientId = request.getHeader(DataSourceRoutingConfig.CLIENT_ID_HEADER);
+
+        long wait = clientBuckets.get(address + "|" + (clientId != null ? clientId : ""),
+                key -> new TokenBucket(properties.getClientRate(), properties.getClientBurst()))
+            .tryAcquire(cost, now);
+        if (wait > 0) {
+            clientRejected.increment();
+            throw tooManyRequests(response, wait);
+        }
+
+        wait = addressBuckets.get(address,
+                key -> new TokenBucket(properties.getAddressRate(), properties.getAddressBurst()))
+            .tryAcquire(cost, now);
+        if (wait > 0) {
+            addressRejected.increment();
+            throw tooManyRequests(response, wait);
+        }
+
+        wait = globalBucket.tryAcquire(cost, now);
+        if (wait > 0) {
+            globalRejected.increment();
+            throw tooManyRequests(response, wait);
+        }
+    }
+
+    private static TooManyRequests tooManyRequests(HttpServletResponse response, long waitNanos) {
+        long seconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(seconds));
+        return new TooManyRequests();
+    }
+
+    private static int listSize(String size) {
+        if (size == null) {
+            return DEFAULT_LIST_SIZE;
+        }
+        try {
+            return Math.max(0, Integer.parseInt(size));
+        } catch (NumberFormatException e) {
+            return DEFAULT_LIST_SIZE;
+        }
+    }
+
+    private static Counter rejected(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("hodol.ratelimit.rejected")
+            .tag("reason", reason)
+            .description("속도 제한 / 동시 처리 제한으로 거절한 요청 수")
+            .register(meterRegistry);
+    }
+
+    private class RateLimitInterceptor implements AsyncHandlerInterceptor {
+
+        @Override
+        public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+            // 비동기 응답의 재디스패치는 이미 통과한 요청이다
+            if (request.getDispatcherType() == DispatcherType.ASYNC) {
+                return true;
+            }
+
+            long now = System.nanoTime();
+            acquire(request, response, cost(request), now);
+
+            if (!concurrencyLimit.tryAcquire()) {
+                concurrencyRejected.increment();
+                throw new ServiceUnavailable();
+            }
+            request.setAttribute(STARTED_AT, now);
+            return true;
+        }
+
+        @Override
+        public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+            Object handler) {
+            // 스트리밍 응답은 처리 시간이 클라이언트가 읽는 속도에 달려 있으므로 한도 조절에 쓰지 않는다
+            if (request.getAttribute(STARTED_AT) != null) {
+                request.removeAttribute(STARTED_AT);
+                concurrencyLimit.release();
+            }
+        }
+
+        @Override
+        public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+            Exception ex) {
+            Object startedAt = request.getAttribute(STARTED_AT);
+            if (startedAt != null) {
+                request.removeAttribute(STARTED_AT);
+                boolean failed = response.getStatus() >= 500;
+                concurrencyLimit.release(System.nanoTime() - (long) startedAt, failed);
+            }
+        }
+    }
+
+    /**
+     * 여러 글 조회는 본문을 읽어야 id 수를 알 수 있으므로, 바인딩한 뒤 id 수에 비례한 비용을 같은 버킷에서 더 뺀다
+     * <p>
+     * 설정 클래스의 멤버 클래스라 RateLimitConfig 와 함께 빈으로 등록된다 (따로 @Bean 으로 등록하면 비용을 두 번 뺀다)
+     */
+    @ControllerAdvice
+    public class BatchGetCostAdvice extends RequestBodyAdviceAdapter {
+
+        @Override
+        public boolean supports(MethodParameter methodParameter, Type targetType,
+            Class<? extends HttpMessageConverter<?>> converterType) {
+            return targetType == PostBatchGet.class;
+        }
+
+        @Override
+        public Object afterBodyRead(Object body, HttpInputMessage inputMessage, MethodParameter parameter,
+            Type targetType, Class<? extends HttpMessageConverter<?>> converterType) {
+            int cost = batchGetCost((PostBatchGet) body);
+            if (cost > 0) {
+                ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.currentRequestAttributes();
+                acquire(attributes.getRequest(), attributes.getResponse(), cost, System.nanoTime());
+            }
+            return body;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.hodol.api.config;
+
+import java.util.Map;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 읽기 전용 트랜잭션은 replica 로, 나머지(쓰기, 트랜잭션 밖)는 primary 로 보낸다
+ * <p>
+ * 트랜잭션의 readOnly 표시는 트랜잭션을 시작한 뒤에 설정되므로 반드시 LazyConnectionDataSourceProxy 로 감싸서
+ * 첫 쿼리 때 커넥션을 고르게 해야 한다.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route {
+        PRIMARY, REPLICA
+    }
+
+    // 자기 쓰기 직후의 요청: 읽기 전용이어도 primary 에서 읽는다
+    private static final ThreadLocal<Boolean> PINNED = new ThreadLocal<>();
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica) {
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    public static void pinToPrimary() {
+        PINNED.set(Boolean.TRUE);
+    }
+
+    public static void unpin() {
+        PINNED.remove();
+    }
+
+    /**
+     * @param readOnly 트랜잭션의 readOnly 여부
+     * @return 이 스레드에서 시작하는 트랜잭션이 replica 에서 읽는지
+     */
+    public static boolean routesToReplica(boolean readOnly) {
+        return readOnly && PINNED.get() == null;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (routesToReplica(TransactionSynchronizationManager.isCurrentTransactionReadOnly())) {
+            return Route.REPLICA;
+        }
+        return Route.PRIMARY;
+    }
+}
@@ -0,0 +1,43 @@
+package com.hodol.api.config;
+
+import jakarta.persistence.CacheStoreMode;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * replica 로 가는 트랜잭션은 2차 캐시(엔티티, 쿼리 캐시)를 읽기만 하고 채우지 않는다 (CacheStoreMode.BYPASS)
+ * <p>
+ * 벌크 수정이 2차 캐시를 비운 직후 복제가 늦은 replica 에서 읽은 이전 값을 캐시에 넣으면, 그 값이 복제 지연보다 훨씬 오래
+ * (리전 TTL 동안) 남고 primary 에 고정된 쓰기 직후의 조회까지 DB 대신 그 값을 받는다. 캐시는 primary 에서 읽은 값으로만 채운다.
+ * <p>
+ * 세션의 CacheMode 를 바꾸면 find() 가 세션의 JPA 캐시 속성으로 다시 덮어쓰므로 JPA 속성(storeMode)으로 정한다.
+ */
+public class ReplicaRoutingTransactionManager extends JpaTransactionManager {
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        super.doBegin(transaction, definition);
+
+        // open-in-view 로 세션을 여러 트랜잭션이 같이 쓸 수 있으므로 트랜잭션마다 다시 정한다
+        entityManagerHolder().getEntityManager().setProperty(AvailableHints.HINT_SPEC_CACHE_STORE_MODE,
+            ReplicaRoutingDataSource.routesToReplica(definition.isReadOnly())
+                ? CacheStoreMode.BYPASS
+                : CacheStoreMode.USE);
+    }
+
+    @Override
+    protected void doCleanupAfterCompletion(Object transaction) {
+        EntityManagerHolder holder = entityManagerHolder();
+        if (holder != null && holder.getEntityManager().isOpen()) {
+            holder.getEntityManager().setProperty(AvailableHints.HINT_SPEC_CACHE_STORE_MODE, CacheStoreMode.USE);
+        }
+        super.doCleanupAfterCompletion(transaction);
+    }
+
+    private EntityManagerHolder entityManagerHolder() {
+        return (EntityManagerHolder) TransactionSynchronizationManager.getResource(obtainEntityManagerFactory());
+    }
+}
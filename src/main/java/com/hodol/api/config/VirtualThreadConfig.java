@@ -0,0 +1,74 @@
+package com.hodol.api.config;
+
+import com.hodol.api.exception.ServiceUnavailable;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * virtual 프로파일: 요청을 가상 스레드에서 처리한다 (spring.threads.virtual.enabled)
+ * <p>
+ * 스레드 수 제한이 사라지면 대기열이 커넥션 풀 획득으로 옮겨갈 뿐이므로,
+ * 동시에 처리 중인 요청 수를 커넥션 풀 크기에 맞춰 제한하고 잠깐 기다려도 자리가 없으면 503 으로 돌려보낸다.
+ */
+@Profile("virtual")
+@Configuration
+public class VirtualThreadConfig implements WebMvcConfigurer {
+
+    private static final String PERMIT = VirtualThreadConfig.class.getName() + ".PERMIT";
+
+    private final Semaphore inFlight;
+    private final long acquireTimeoutMillis;
+
+    public VirtualThreadConfig(@Value("${hodol.virtual.max-in-flight}") int maxInFlight,
+        @Value("${hodol.virtual.acquire-timeout}") long acquireTimeoutMillis) {
+        this.inFlight = new Semaphore(maxInFlight, true);
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new InFlightLimitInterceptor())
+            .addPathPatterns("/posts/**", "/posts");
+    }
+
+    private class InFlightLimitInterceptor implements AsyncHandlerInterceptor {
+
+        @Override
+        public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws InterruptedException {
+            // 가상 스레드는 대기해도 캐리어 스레드를 점유하지 않는다
+            if (!inFlight.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new ServiceUnavailable();
+            }
+            request.setAttribute(PERMIT, Boolean.TRUE);
+            return true;
+        }
+
+        @Override
+        public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+            Object handler) {
+            release(request);
+        }
+
+        @Override
+        public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+            Exception ex) {
+            release(request);
+        }
+
+        private void release(HttpServletRequest request) {
+            if (request.getAttribute(PERMIT) != null) {
+                request.removeAttribute(PERMIT);
+                inFlight.release();
+            }
+        }
+    }
+}
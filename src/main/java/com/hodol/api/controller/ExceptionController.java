@@ -2,6 +2,8 @@ package com.hodol.api.controller;
 
 import com.hodol.api.exception.HodollogException;
 import com.hodol.api.response.ErrorResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -14,12 +16,19 @@ import org.springframework.web.bind.annotation.ResponseStatus;
 
 @Slf4j
 @ControllerAdvice
+@RequiredArgsConstructor
 public class ExceptionController {
 
+    public static final String EXCEPTION_COUNTER = "hodol.exceptions";
+
+    private final MeterRegistry meterRegistry;
+
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     @ExceptionHandler(MethodArgumentNotValidException.class)
     @ResponseBody
     public ErrorResponse invalidRequestHandler(MethodArgumentNotValidException e) {
+        count(e, 400);
+
         ErrorResponse response = ErrorResponse.builder()
             .code("400")
             .message("잘못된 요청입니다.")
@@ -36,6 +45,7 @@ public class ExceptionController {
     @ExceptionHandler(HodollogException.class)
     public ResponseEntity<ErrorResponse> hodollogException(HodollogException e) {
         int statusCode = e.getStatusCode();
+        count(e, statusCode);
 
         ErrorResponse body = ErrorResponse.builder()
             .code(String.valueOf(statusCode))
@@ -45,4 +55,11 @@ public class ExceptionController {
 
         return ResponseEntity.status(statusCode).body(body);
     }
+
+    private void count(Exception e, int statusCode) {
+        meterRegistry.counter(EXCEPTION_COUNTER,
+                "exception", e.getClass().getSimpleName(),
+                "status", String.valueOf(statusCode))
+            .increment();
+    }
 }
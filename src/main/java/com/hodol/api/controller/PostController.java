@@ -1,14 +1,29 @@
 package com.hodol.api.controller;
 
+import com.hodol.api.ingest.PostIngestService;
+import com.hodol.api.request.PostBatchGet;
 import com.hodol.api.request.PostCreate;
 import com.hodol.api.request.PostEdit;
 import com.hodol.api.request.PostSearch;
+import com.hodol.api.response.PostAcceptedResponse;
+import com.hodol.api.response.PostBatchResponse;
 import com.hodol.api.response.PostResponse;
+import com.hodol.api.response.PostSummaryResponse;
+import com.hodol.api.service.CompressedPostStore;
+import com.hodol.api.service.CompressedPostStore.CompressedPost;
+import com.hodol.api.service.PostEventStream;
 import com.hodol.api.service.PostService;
+import com.hodol.api.service.PostViewCounter;
 import jakarta.validation.Valid;
+import java.net.URI;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
@@ -16,38 +31,188 @@ import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @Slf4j
 @RestController
 @RequiredArgsConstructor
 public class PostController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final String LAST_EVENT_ID_HEADER = "Last-Event-ID";
+    public static final String VIEW_COUNT_HEADER = "X-View-Count";
+
     private final PostService postService;
+    private final CompressedPostStore compressedPostStore;
+    private final PostViewCounter postViewCounter;
+    private final ObjectProvider<PostIngestService> postIngestService;
+    private final PostEventStream postEventStream;
 
     @PostMapping("/posts")
-    public void post(@RequestBody @Valid PostCreate request) {
+    public ResponseEntity<PostAcceptedResponse> post(@RequestBody @Valid PostCreate request) {
         request.validate();
+
+        // 비동기 작성이 켜져 있으면 로그에 쓰고 바로 202 (DB 에는 곧 들어간다)
+        PostIngestService ingest = postIngestService.getIfAvailable();
+        if (ingest != null) {
+            Long postId = ingest.submit(request);
+            return ResponseEntity.accepted()
+                .location(URI.create("/posts/" + postId))
+                .body(new PostAcceptedResponse(postId));
+        }
+
         postService.write(request);
+        return ResponseEntity.ok().build();
     }
 
+    @PostMapping("/posts/bulk")
+    public void bulk(@RequestBody List<PostCreate> requests) {
+        postService.writeAll(requests);
+    }
+
+    /**
+     * 단건 조회. 본문은 글의 버전마다 같은 바이트이므로 강한 ETag 를 쓴다.
+     * 요청마다 달라지는 조회수는 본문에 넣지 않고 X-View-Count 헤더로 보낸다
+     */
     @GetMapping("/posts/{postId}")
-    public PostResponse get(@PathVariable Long postId) {
-        return postService.get(postId);
+    public ResponseEntity<?> get(@PathVariable Long postId,
+        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+        @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        boolean gzip = compressedPostStore.isEnabled() && acceptsGzip(acceptEncoding);
+
+        // If-None-Match 가 오면 본문을 읽기 전에 버전만 확인해서 304 로 끝낸다
+        if (ifNoneMatch != null) {
+            Long version = postService.getVersion(postId);
+            String eTag = gzip ? PostETags.ofGzip(postId, version) : PostETags.of(postId, version);
+            if (PostETags.matches(ifNoneMatch, eTag)) {
+                long viewCount = postViewCounter.increment(postId);
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(eTag)
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                    .header(VIEW_COUNT_HEADER, String.valueOf(viewCount))
+                    .build();
+            }
+        }
+
+        // 미리 압축해 둔 JSON 바이트를 그대로 내보낸다 (이미 Content-Encoding 이 있으므로 톰캣이 다시 압축하지 않음)
+        if (gzip) {
+            CompressedPost post = compressedPostStore.get(postId, () -> postService.get(postId));
+            long viewCount = postViewCounter.increment(postId);
+            return ResponseEntity.ok()
+                .eTag(PostETags.ofGzip(post.id(), post.version()))
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .header(VIEW_COUNT_HEADER, String.valueOf(viewCount))
+                .body(post.gzip());
+        }
+
+        PostResponse post = postService.get(postId);
+        long viewCount = postViewCounter.increment(postId);
+        return ResponseEntity.ok()
+            .eTag(PostETags.of(post.getId(), post.getVersion()))
+            .varyBy(HttpHeaders.ACCEPT_ENCODING)
+            .header(VIEW_COUNT_HEADER, String.valueOf(viewCount))
+            .body(post);
     }
 
     @GetMapping("/posts")
-    public List<PostResponse> getAll(@ModelAttribute PostSearch postSearch) {
-        return postService.getList(postSearch);
+    public ResponseEntity<List<PostResponse>> getAll(@ModelAttribute PostSearch postSearch) {
+        // ETag 를 붙여 두면 If-None-Match 가 같을 때 스프링이 직렬화 없이 304 로 응답한다 (조회수가 바뀌면 ETag 도 바뀐다)
+        List<PostResponse> posts = postService.getList(postSearch);
+
+        // 페이지가 가득 찼다면 다음 페이지 요청에 쓸 커서(lastId)를 알려준다 (검색은 점수 순이라 제외)
+        if (!postSearch.hasQuery() && !posts.isEmpty() && posts.size() >= postSearch.getSize()) {
+            Long nextCursor = posts.get(posts.size() - 1).getId();
+            return ResponseEntity.ok()
+                .eTag(PostETags.of(posts))
+                .header(NEXT_CURSOR_HEADER, String.valueOf(nextCursor))
+                .body(posts);
+        }
+
+        return ResponseEntity.ok()
+            .eTag(PostETags.of(posts))
+            .body(posts);
+    }
+
+    @PostMapping("/posts/batch-get")
+    public PostBatchResponse batchGet(@RequestBody @Valid PostBatchGet request) {
+        return postService.getAll(request.getIds());
+    }
+
+    /**
+     * 글 변경 스트림 (SSE). 다시 연결할 때 Last-Event-ID 를 보내면 그 다음 이벤트부터 이어서 받는다
+     */
+    @GetMapping(value = "/posts/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestHeader(value = LAST_EVENT_ID_HEADER, required = false) String lastEventId) {
+        return postEventStream.subscribe(lastEventId);
+    }
+
+    @GetMapping("/posts/most-viewed")
+    public List<PostResponse> getMostViewed(@RequestParam(defaultValue = "10") int size) {
+        return postService.getMostViewed(size);
+    }
+
+    @GetMapping("/posts/summaries")
+    public List<PostSummaryResponse> getSummaries(@ModelAttribute PostSearch postSearch) {
+        return postService.getSummaryList(postSearch);
+    }
+
+    @GetMapping(value = "/posts/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> export() {
+        StreamingResponseBody body = postService::export;
+
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .body(body);
     }
 
     @PatchMapping("/posts/{postId}")
-    public PostResponse edit(@PathVariable Long postId, @RequestBody @Valid PostEdit request) {
-        return postService.edit(postId, request);
+    public ResponseEntity<PostResponse> edit(@PathVariable Long postId, @RequestBody @Valid PostEdit request,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        PostResponse post = postService.edit(postId, request, PostETags.expectedVersion(postId, ifMatch));
+
+        return ResponseEntity.ok()
+            .eTag(PostETags.of(post.getId(), post.getVersion()))
+            .body(post);
     }
 
     @DeleteMapping("/posts/{postId}")
-    public void delete(@PathVariable Long postId) {
-        postService.delete(postId);
+    public void delete(@PathVariable Long postId,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        postService.delete(postId, PostETags.expectedVersion(postId, ifMatch));
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return qValue(parts) > 0;
+            }
+        }
+        return false;
+    }
+
+    // q 가 없으면 1. q=0, q=0.0, q=0.000 은 모두 거절이다 (RFC 9110 12.4.2). 읽을 수 없는 값도 거절로 본다
+    private static double qValue(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String[] parameter = parts[i].trim().split("=", 2);
+            if (parameter.length == 2 && parameter[0].trim().equalsIgnoreCase("q")) {
+                try {
+                    return Double.parseDouble(parameter[1].trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
     }
-}
\ No newline at end of file
+}
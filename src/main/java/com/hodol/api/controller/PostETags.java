@@ -0,0 +1,88 @@
+package com.hodol.api.controller;
+
+import com.hodol.api.exception.PreconditionFailed;
+import com.hodol.api.response.PostResponse;
+import java.util.List;
+
+/**
+ * 글 ETag 규칙
+ * <p>
+ * 단건: "{id}-{version}" (gzip 으로 미리 압축된 표현은 "{id}-{version}-gz"), 목록: W/"l-{(id, version, 조회수) 목록의 해시}"
+ * <p>
+ * 목록 항목에는 조회수가 들어 있어서 조회수 반영(flush)마다 본문 바이트가 달라진다.
+ * 그래서 목록은 조회수까지 해시에 넣고 약한 ETag 로 보낸다 (If-None-Match 에만 쓰이고 If-Match 에는 쓸 수 없다)
+ */
+final class PostETags {
+
+    private static final String GZIP_SUFFIX = "-gz";
+
+    private PostETags() {
+    }
+
+    static String of(Long id, Long version) {
+        return "\"" + id + "-" + version + "\"";
+    }
+
+    static String ofGzip(Long id, Long version) {
+        return "\"" + id + "-" + version + GZIP_SUFFIX + "\"";
+    }
+
+    static String of(List<PostResponse> posts) {
+        long hash = 17;
+        for (PostResponse post : posts) {
+            hash = 31 * hash + post.getId();
+            hash = 31 * hash + (post.getVersion() == null ? 0 : post.getVersion());
+            hash = 31 * hash + (post.getViewCount() == null ? 0 : post.getViewCount());
+        }
+        return "W/\"l-" + posts.size() + "-" + Long.toHexString(hash) + "\"";
+    }
+
+    /**
+     * If-None-Match 비교 (약한 비교: W/ 는 무시한다)
+     */
+    static boolean matches(String ifNoneMatch, String eTag) {
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * If-Match 값에서 기대하는 버전을 꺼낸다. 헤더가 없거나 "*" 이면 null (버전 확인 안 함)
+     */
+    static Long expectedVersion(Long id, String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            // 약한 ETag 는 If-Match 비교에 쓸 수 없다 (RFC 9110)
+            throw new PreconditionFailed();
+        }
+        tag = tag.replace("\"", "");
+        if (tag.endsWith(GZIP_SUFFIX)) {
+            tag = tag.substring(0, tag.length() - GZIP_SUFFIX.length());
+        }
+
+        String prefix = id + "-";
+        if (!tag.startsWith(prefix)) {
+            throw new PreconditionFailed();
+        }
+
+        try {
+            return Long.parseLong(tag.substring(prefix.length()));
+        } catch (NumberFormatException e) {
+            throw new PreconditionFailed();
+        }
+    }
+}
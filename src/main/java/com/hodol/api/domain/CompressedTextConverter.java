@@ -0,0 +1,127 @@
+package com.hodol.api.domain;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Metrics;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * 긴 문자열을 Deflate 로 압축해서 BLOB 으로 저장한다
+ * <pre>
+ * [0][UTF-8]                          MIN_COMPRESS_BYTES 보다 짧거나 압축해도 줄지 않는 경우
+ * [1][int UTF-8 길이][raw deflate]     그 외
+ * </pre>
+ * 원래 크기와 저장된 크기는 hodol.post.content.bytes (form=raw|stored) 로 남긴다. 두 합계의 비가 압축률이다.
+ * 같은 형식을 JDBC 로 직접 쓰는 곳(비동기 작성)은 {@link #compress(String)} 를 쓴다. V2 마이그레이션은 이 형식을 따로 고정해 두었다.
+ */
+@Converter
+public class CompressedTextConverter implements AttributeConverter<String, byte[]> {
+
+    public static final int MIN_COMPRESS_BYTES = 256;
+
+    private static final byte RAW = 0;
+    private static final byte DEFLATE = 1;
+
+    private static final DistributionSummary RAW_BYTES = DistributionSummary.builder("hodol.post.content.bytes")
+        .baseUnit("bytes")
+        .tag("form", "raw")
+        .description("압축하기 전 본문 크기 (UTF-8)")
+        .register(Metrics.globalRegistry);
+
+    private static final DistributionSummary STORED_BYTES = DistributionSummary.builder("hodol.post.content.bytes")
+        .baseUnit("bytes")
+        .tag("form", "stored")
+        .description("DB 에 저장되는 본문 크기")
+        .register(Metrics.globalRegistry);
+
+    @Override
+    public byte[] convertToDatabaseColumn(String attribute) {
+        return compress(attribute);
+    }
+
+    @Override
+    public String convertToEntityAttribute(byte[] dbData) {
+        return decompress(dbData);
+    }
+
+    public static byte[] compress(String text) {
+        if (text == null) {
+            return null;
+        }
+
+        byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+        byte[] stored = utf8.length < MIN_COMPRESS_BYTES ? raw(utf8) : deflate(utf8);
+
+        RAW_BYTES.record(utf8.length);
+        STORED_BYTES.record(stored.length);
+        return stored;
+    }
+
+    public static String decompress(byte[] stored) {
+        if (stored == null) {
+            return null;
+        }
+        if (stored[0] == RAW) {
+            return new String(stored, 1, stored.length - 1, StandardCharsets.UTF_8);
+        }
+
+        // 원래 길이를 알고 있으므로 한 번에 맞는 크기의 배열로 푼다
+        ByteBuffer header = ByteBuffer.wrap(stored, 1, Integer.BYTES);
+        byte[] utf8 = new byte[header.getInt()];
+
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(stored, 1 + Integer.BYTES, stored.length - 1 - Integer.BYTES);
+            int length = 0;
+            while (length < utf8.length) {
+                int inflated = inflater.inflate(utf8, length, utf8.length - length);
+                if (inflated == 0 && (inflater.finished() || inflater.needsInput())) {
+                    throw new IllegalStateException("truncated compressed text");
+                }
+                length += inflated;
+            }
+            return new String(utf8, StandardCharsets.UTF_8);
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("corrupted compressed text", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static byte[] raw(byte[] utf8) {
+        byte[] stored = new byte[utf8.length + 1];
+        stored[0] = RAW;
+        System.arraycopy(utf8, 0, stored, 1, utf8.length);
+        return stored;
+    }
+
+    private static byte[] deflate(byte[] utf8) {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        try {
+            deflater.setInput(utf8);
+            deflater.finish();
+
+            // 원본보다 커지면 압축하지 않고 저장한다
+            byte[] stored = new byte[1 + Integer.BYTES + utf8.length];
+            int length = 1 + Integer.BYTES;
+            while (!deflater.finished() && length < stored.length) {
+                length += deflater.deflate(stored, length, stored.length - length);
+            }
+            if (!deflater.finished()) {
+                return raw(utf8);
+            }
+
+            stored[0] = DEFLATE;
+            ByteBuffer.wrap(stored, 1, Integer.BYTES).putInt(utf8.length);
+            return Arrays.copyOf(stored, length);
+        } finally {
+            deflater.end();
+        }
+    }
+}
@@ -2,35 +2,57 @@ package com.hodol.api.domain;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Getter
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Post.CACHE_REGION)
+@Table(indexes = @Index(name = "idx_post_view_count", columnList = "view_count"))
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class Post {
 
+    public static final String CACHE_REGION = "post-entity";
+
+    public static final int EXCERPT_LENGTH = 100;
+
+    // IDENTITY 는 insert 마다 키를 돌려받아야 해서 JDBC 배치가 불가능하다 -> 시퀀스 + pooled 옵티마이저
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "post_seq")
+    @SequenceGenerator(name = "post_seq", sequenceName = "post_seq", allocationSize = 50)
     private Long id;
 
     private String title;
 
-    @Lob //롱 텍스트 형태
+    // 긴 본문은 압축해서 BLOB 으로 저장한다 (2차 캐시에도 압축된 형태로 들어간다)
+    @Lob
+    @Convert(converter = CompressedTextConverter.class)
     private String content;
 
+    // 목록 요약은 본문을 읽지 않고 이 컬럼만 읽는다 (본문의 앞부분)
+    @Column(length = EXCERPT_LENGTH)
+    private String excerpt;
+
+    // 낙관적 락 + ETag 용 버전 (수정될 때마다 1 씩 증가)
+    @Version
+    private Long version;
+
+    // 조회수는 메모리에서 모았다가 주기적으로 더한다 (PostViewCounter). 버전은 올리지 않는다
+    @Column(name = "view_count", nullable = false)
+    private long viewCount;
+
     @Builder
     public Post(String title, String content) {
         this.title = title;
         this.content = content;
+        this.excerpt = excerpt(content);
     }
 
-    public PostEditor.PostEditorBuilder toEditor() {
-        return PostEditor.builder()
-                .title(title)
-                .content(content);
-    }
-
-    public void edit(PostEditor postEditor) {
-        this.title = postEditor.getTitle();
-        this.content = postEditor.getContent();
+    public static String excerpt(String content) {
+        if (content == null || content.length() <= EXCERPT_LENGTH) {
+            return content;
+        }
+        return content.substring(0, EXCERPT_LENGTH);
     }
 }
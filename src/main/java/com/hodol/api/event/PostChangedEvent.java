@@ -0,0 +1,47 @@
+package com.hodol.api.event;
+
+import com.hodol.api.domain.Post;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 글이 작성/수정/삭제 되었음을 알리는 이벤트 (리스너는 커밋 이후에 받는다)
+ */
+@Getter
+@ToString
+public class PostChangedEvent {
+
+    public enum Type {
+        CREATED, EDITED, DELETED
+    }
+
+    private final Type type;
+    private final Long postId;
+    private final String title;
+    private final String content;
+    private final Long version;
+
+    private PostChangedEvent(Type type, Long postId, String title, String content, Long version) {
+        this.type = type;
+        this.postId = postId;
+        this.title = title;
+        this.content = content;
+        this.version = version;
+    }
+
+    public static PostChangedEvent created(Post post) {
+        return new PostChangedEvent(Type.CREATED, post.getId(), post.getTitle(), post.getContent(), post.getVersion());
+    }
+
+    public static PostChangedEvent created(Long postId, String title, String content, Long version) {
+        return new PostChangedEvent(Type.CREATED, postId, title, content, version);
+    }
+
+    public static PostChangedEvent edited(Long postId, String title, String content, Long version) {
+        return new PostChangedEvent(Type.EDITED, postId, title, content, version);
+    }
+
+    public static PostChangedEvent deleted(Long postId) {
+        return new PostChangedEvent(Type.DELETED, postId, null, null, null);
+    }
+}
@@ -0,0 +1,15 @@
+package com.hodol.api.exception;
+
+public class PreconditionFailed extends HodollogException {
+
+    public static final String MESSAGE = "다른 요청에 의해 글이 변경되었습니다.";
+
+    public PreconditionFailed() {
+        super(MESSAGE);
+    }
+
+    @Override
+    public int getStatusCode() {
+        return 412;
+    }
+}
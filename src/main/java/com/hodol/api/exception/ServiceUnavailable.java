@@ -0,0 +1,15 @@
+package com.hodol.api.exception;
+
+public class ServiceUnavailable extends HodollogException {
+
+    public static final String MESSAGE = "요청이 많아 잠시 후 다시 시도해주세요.";
+
+    public ServiceUnavailable() {
+        super(MESSAGE);
+    }
+
+    @Override
+    public int getStatusCode() {
+        return 503;
+    }
+}
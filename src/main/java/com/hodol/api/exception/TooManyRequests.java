@@ -0,0 +1,15 @@
+package com.hodol.api.exception;
+
+public class TooManyRequests extends HodollogException {
+
+    public static final String MESSAGE = "요청이 너무 많습니다. 잠시 후 다시 시도해주세요.";
+
+    public TooManyRequests() {
+        super(MESSAGE);
+    }
+
+    @Override
+    public int getStatusCode() {
+        return 429;
+    }
+}
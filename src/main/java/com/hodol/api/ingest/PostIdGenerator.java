@@ -0,0 +1,34 @@
+package com.hodol.api.ingest;
+
+import com.hodol.api.domain.Post;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+
+/**
+ * 글 id 를 DB 에 넣기 전에 미리 받는다
+ * <p>
+ * JPA 저장과 같은 하이버네이트 id 생성기(post_seq, pooled optimizer)를 그대로 쓰므로 두 경로의 id 가 겹치지 않고,
+ * 시퀀스는 allocationSize 마다 한 번만 읽는다.
+ */
+public class PostIdGenerator {
+
+    private final SessionFactoryImplementor sessionFactory;
+    private final IdentifierGenerator generator;
+
+    public PostIdGenerator(EntityManagerFactory entityManagerFactory) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.generator = (IdentifierGenerator) sessionFactory.getMappingMetamodel()
+            .getEntityDescriptor(Post.class)
+            .getGenerator();
+    }
+
+    public long next() {
+        // 커넥션은 시퀀스를 읽어야 할 때만 잡는다
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            return (Long) generator.generate((SharedSessionContractImplementor) session, null);
+        }
+    }
+}
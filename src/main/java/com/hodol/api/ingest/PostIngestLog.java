@@ -0,0 +1,331 @@
+package com.hodol.api.ingest;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * 글 작성 요청을 쌓는 append-only 로그 (메모리 맵 파일)
+ * <p>
+ * 고정 크기 세그먼트 파일을 이어 붙인 하나의 주소 공간(position)을 쓴다. 레코드는 세그먼트를 넘지 않는다.
+ * <pre>
+ * [int bodyLength][int crc32(body)][long id][long appendedAt][int titleLength][title][int contentLength][content]
+ * </pre>
+ * bodyLength 가 0 이면 로그의 끝, -1 이면 다음 세그먼트로 넘어간다는 표시다.
+ * 쓰기는 페이지 캐시까지만 가고, {@link #sync()} 가 모아서 한 번에 force(fsync) 한다. 읽기는 sync 된 곳까지만 한다.
+ */
+public class PostIngestLog implements Closeable {
+
+    private static final int HEADER = Integer.BYTES * 2;
+    private static final int END = 0;
+    private static final int NEXT_SEGMENT = -1;
+
+    public record Entry(long position, long nextPosition, long id, long appendedAt, String title, String content) {
+    }
+
+    private final Path directory;
+    private final int segmentSize;
+    private final Map<Long, MappedByteBuffer> segments = new ConcurrentSkipListMap<>();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition synced = lock.newCondition();
+
+    // lock 안에서만 바뀐다
+    private long writePosition;
+    private long syncedUpTo;
+
+    // sync 가 끝난(디스크에 있는) 위치. 읽는 쪽은 여기까지만 읽는다
+    private volatile long durablePosition;
+
+    private PostIngestLog(Path directory, int segmentSize) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * 로그를 열고 from 부터 훑어서 끝(마지막으로 온전히 쓰인 레코드 다음)을 찾는다
+     */
+    public static PostIngestLog open(Path directory, int segmentSize, long from) {
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        PostIngestLog log = new PostIngestLog(directory, segmentSize);
+        long position = from;
+        while (true) {
+            Entry entry = log.readAt(position);
+            if (entry == null) {
+                break;
+            }
+            position = entry.nextPosition();
+        }
+
+        log.writePosition = position;
+        log.syncedUpTo = position;
+        log.durablePosition = position;
+        return log;
+    }
+
+    /**
+     * @return 레코드가 끝나는 위치 (이 위치까지 sync 되면 레코드가 디스크에 있다)
+     */
+    public long append(long id, long appendedAt, String title, String content) {
+        byte[] titleBytes = title.getBytes(StandardCharsets.UTF_8);
+        byte[] contentBytes = content.getBytes(StandardCharsets.UTF_8);
+
+        ByteBuffer body = ByteBuffer.allocate(Long.BYTES * 2 + Integer.BYTES * 2 + titleBytes.length + contentBytes.length);
+        body.putLong(id)
+            .putLong(appendedAt)
+            .putInt(titleBytes.length)
+            .put(titleBytes)
+            .putInt(contentBytes.length)
+            .put(contentBytes);
+        byte[] bodyBytes = body.array();
+
+        int recordLength = HEADER + bodyBytes.length;
+        if (recordLength + Integer.BYTES > segmentSize) {
+            throw new IllegalArgumentException("record too large: " + recordLength);
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(bodyBytes);
+
+        lock.lock();
+        try {
+            // 남은 공간이 모자라면 (다음 레코드의 끝 표시 자리까지) 다음 세그먼트로 넘어간다
+            int offset = offset(writePosition);
+            if (offset + recordLength + Integer.BYTES > segmentSize) {
+                segment(writePosition).putInt(offset, NEXT_SEGMENT);
+                writePosition = (writePosition / segmentSize + 1) * segmentSize;
+                offset = 0;
+            }
+
+            MappedByteBuffer segment = segment(writePosition);
+            segment.putInt(offset + recordLength, END); // 이전에 남은 쓰레기를 다음 레코드로 읽지 않도록
+            segment.put(offset + HEADER, bodyBytes);
+            segment.putInt(offset + Integer.BYTES, (int) crc.getValue());
+            segment.putInt(offset, bodyBytes.length);
+
+            writePosition += recordLength;
+            return writePosition;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 마지막 sync 이후 쓴 부분을 디스크에 내린다 (여러 append 를 한 번의 fsync 로 묶는다)
+     */
+    public void sync() {
+        long from;
+        long to;
+        lock.lock();
+        try {
+            from = syncedUpTo;
+            to = writePosition;
+        } finally {
+            lock.unlock();
+        }
+        if (to == from) {
+            return;
+        }
+
+        // 세그먼트별로 바뀐 범위만 force 한다 (끝 표시 int 포함)
+        long position = from;
+        while (position < to) {
+            long segmentEnd = (position / segmentSize + 1) * segmentSize;
+            int offset = offset(position);
+            int length = (int) (Math.min(to + Integer.BYTES, segmentEnd) - position);
+            segment(position).force(offset, Math.min(length, segmentSize - offset));
+            position = segmentEnd;
+        }
+
+        lock.lock();
+        try {
+            syncedUpTo = to;
+            durablePosition = to;
+            synced.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * position 까지 sync 될 때까지 기다린다
+     *
+     * @return 시간 안에 sync 되었는지
+     */
+    public boolean awaitDurable(long position, long timeoutMillis) throws InterruptedException {
+        long remaining = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        lock.lock();
+        try {
+            while (durablePosition < position) {
+                if (remaining <= 0) {
+                    return false;
+                }
+                remaining = synced.awaitNanos(remaining);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * from 부터 sync 된 레코드를 최대 max 개 읽는다
+     */
+    public List<Entry> read(long from, int max) {
+        long durable = durablePosition;
+        List<Entry> entries = new ArrayList<>(Math.min(max, 1024));
+
+        long position = from;
+        while (entries.size() < max && position < durable) {
+            Entry entry = readAt(position);
+            if (entry == null) {
+                break;
+            }
+            entries.add(entry);
+            position = entry.nextPosition();
+        }
+        return entries;
+    }
+
+    public long getWritePosition() {
+        lock.lock();
+        try {
+            return writePosition;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getDurablePosition() {
+        return durablePosition;
+    }
+
+    /**
+     * position 보다 앞에서 끝나는 세그먼트 파일을 지운다 (DB 에 반영이 끝난 부분)
+     */
+    public void deleteBefore(long position) {
+        long keep = position / segmentSize;
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Long index = segmentIndex(file);
+                if (index != null && index < keep) {
+                    segments.remove(index);
+                    Files.deleteIfExists(file);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        sync();
+        segments.clear();
+    }
+
+    // 온전한 레코드가 아니면 null (로그의 끝)
+    private Entry readAt(long position) {
+        int offset = offset(position);
+        if (offset + HEADER > segmentSize) {
+            return null;
+        }
+
+        MappedByteBuffer segment = segmentIfExists(position);
+        if (segment == null) {
+            return null;
+        }
+
+        int bodyLength = segment.getInt(offset);
+        if (bodyLength == NEXT_SEGMENT) {
+            return readAt((position / segmentSize + 1) * segmentSize);
+        }
+        if (bodyLength <= END || offset + HEADER + bodyLength > segmentSize) {
+            return null;
+        }
+
+        byte[] body = new byte[bodyLength];
+        segment.get(offset + HEADER, body);
+
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        if ((int) crc.getValue() != segment.getInt(offset + Integer.BYTES)) {
+            return null;
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(body);
+        long id = buffer.getLong();
+        long appendedAt = buffer.getLong();
+        byte[] title = new byte[buffer.getInt()];
+        buffer.get(title);
+        byte[] content = new byte[buffer.getInt()];
+        buffer.get(content);
+
+        return new Entry(position, position + HEADER + bodyLength, id, appendedAt,
+            new String(title, StandardCharsets.UTF_8), new String(content, StandardCharsets.UTF_8));
+    }
+
+    private int offset(long position) {
+        return (int) (position % segmentSize);
+    }
+
+    private MappedByteBuffer segment(long position) {
+        return segments.computeIfAbsent(position / segmentSize, index -> map(index, true));
+    }
+
+    private MappedByteBuffer segmentIfExists(long position) {
+        long index = position / segmentSize;
+        MappedByteBuffer segment = segments.get(index);
+        if (segment != null || !Files.exists(file(index))) {
+            return segment;
+        }
+        return segments.computeIfAbsent(index, i -> map(i, false));
+    }
+
+    private MappedByteBuffer map(long index, boolean create) {
+        Path file = file(index);
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw");
+             FileChannel channel = raf.getChannel()) {
+            if (create && raf.length() < segmentSize) {
+                raf.setLength(segmentSize);
+            }
+            // 매핑은 채널을 닫아도 유지된다
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Path file(long index) {
+        return directory.resolve(String.format("segment-%020d.log", index));
+    }
+
+    private static Long segmentIndex(Path file) {
+        String name = file.getFileName().toString();
+        if (!name.startsWith("segment-") || !name.endsWith(".log")) {
+            return null;
+        }
+        return Long.parseLong(name.substring("segment-".length(), name.length() - ".log".length()));
+    }
+}
@@ -0,0 +1,286 @@
+package com.hodol.api.ingest;
+
+import com.hodol.api.config.PostProperties;
+import com.hodol.api.domain.CompressedTextConverter;
+import com.hodol.api.domain.Post;
+import com.hodol.api.event.PostChangedEvent;
+import com.hodol.api.exception.ServiceUnavailable;
+import com.hodol.api.ingest.PostIngestLog.Entry;
+import com.hodol.api.repository.PostRepositoryImpl;
+import com.hodol.api.request.PostCreate;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManagerFactory;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 비동기 글 작성 (hodol.post.ingest.enabled=true 인 경우)
+ * <p>
+ * 요청은 id 를 받고 로컬 로그에 레코드를 쓴 뒤, 그 레코드가 fsync 될 때까지만 기다린다 (fsync 는 sync 스레드가 모아서 한다).
+ * syncTimeout 안에 fsync 되지 않아도 레코드는 이미 로그에 있고 곧 DB 에 들어가므로 같은 id 로 202 를 준다.
+ * 503 을 주면 클라이언트가 다시 보내서 같은 글이 다른 id 로 한 번 더 들어간다.
+ * apply 스레드는 fsync 된 레코드를 batchSize 개씩 한 트랜잭션(JDBC 배치)으로 DB 에 넣고, 넣은 위치를 체크포인트에 남긴다.
+ * 기동하면 체크포인트 뒤의 레코드를 다시 넣는다. DB 에 이미 있는 id 는 건너뛰므로 여러 번 넣어도 한 번만 들어간다.
+ * DB 에 들어가기 전(보통 수 ms)에는 단건/목록 조회에 보이지 않는다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "hodol.post.ingest.enabled", havingValue = "true")
+public class PostIngestService implements SmartLifecycle {
+
+    private static final String INSERT_SQL = "insert into post (id, title, content, excerpt, version, view_count) "
+        + "values (?, ?, ?, ?, 0, 0)";
+    private static final String EXISTING_SQL = "select id from post where id in (:ids)";
+    private static final String CHECKPOINT = "checkpoint";
+
+    private final PostProperties.Ingest properties;
+    private final PostIdGenerator idGenerator;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SessionFactory sessionFactory;
+    private final Path directory;
+
+    // 로그에 있지만 DB 에 아직 넣지 않은 건수
+    private final AtomicLong pending = new AtomicLong();
+    private final Timer commitLag;
+    private final Timer syncTimer;
+    private final Counter syncTimeouts;
+
+    private volatile PostIngestLog ingestLog;
+    private volatile long appliedPosition;
+    private volatile boolean running;
+
+    private Thread syncThread;
+    private Thread applyThread;
+
+    public PostIngestService(PostProperties postProperties, EntityManagerFactory entityManagerFactory,
+        NamedParameterJdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+        ApplicationEventPublisher eventPublisher, MeterRegistry meterRegistry) {
+        this.properties = postProperties.getIngest();
+        this.idGenerator = new PostIdGenerator(entityManagerFactory);
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.directory = Path.of(properties.getDirectory());
+
+        Gauge.builder("hodol.post.ingest.queue.depth", pending, AtomicLong::get)
+            .description("로그에 쓰였지만 아직 DB 에 들어가지 않은 글 수")
+            .register(meterRegistry);
+        Gauge.builder("hodol.post.ingest.queue.bytes", this, PostIngestService::pendingBytes)
+            .baseUnit("bytes")
+            .description("아직 DB 에 들어가지 않은 로그 크기")
+            .register(meterRegistry);
+        this.commitLag = Timer.builder("hodol.post.ingest.commit.lag")
+            .description("로그에 쓰인 뒤 DB 에 커밋되기까지 걸린 시간")
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .register(meterRegistry);
+        this.syncTimer = Timer.builder("hodol.post.ingest.sync")
+            .description("로그 fsync 한 번에 걸린 시간")
+            .register(meterRegistry);
+        this.syncTimeouts = Counter.builder("hodol.post.ingest.sync.timeout")
+            .description("fsync 를 기다리지 못하고 응답한 글 수 (로그에는 있으므로 DB 에는 들어간다)")
+            .register(meterRegistry);
+    }
+
+    /**
+     * 로그에 쓰고 디스크에 내려간 것을 확인한 뒤 id 를 돌려준다 (DB 에는 나중에 들어간다).
+     * 로그에 쓴 뒤로는 실패하지 않는다 (fsync 를 시간 안에 확인하지 못하면 더 약한 보장으로 id 를 돌려준다)
+     */
+    public Long submit(PostCreate request) {
+        PostIngestLog current = ingestLog;
+        if (!running || current == null || pending.get() >= properties.getMaxPending()) {
+            throw new ServiceUnavailable();
+        }
+
+        long id = idGenerator.next();
+        long end = current.append(id, System.currentTimeMillis(), request.getTitle(), request.getContent());
+        pending.incrementAndGet();
+
+        try {
+            // 시간 안에 fsync 되지 않아도 레코드는 로그에 있고 apply 스레드가 넣는다
+            if (!current.awaitDurable(end, properties.getSyncTimeout().toMillis())) {
+                syncTimeouts.increment();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            syncTimeouts.increment();
+        }
+        return id;
+    }
+
+    @Override
+    public void start() {
+        appliedPosition = readCheckpoint();
+        ingestLog = PostIngestLog.open(directory, properties.getSegmentSize(), appliedPosition);
+        pending.set(countPending());
+        running = true;
+
+        syncThread = new Thread(this::syncLoop, "post-ingest-sync");
+        syncThread.setDaemon(true);
+        syncThread.start();
+
+        applyThread = new Thread(this::applyLoop, "post-ingest-apply");
+        applyThread.setDaemon(true);
+        applyThread.start();
+
+        log.info("post ingest started. directory={}, pending={}", directory.toAbsolutePath(), pending.get());
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        join(syncThread);
+        join(applyThread);
+        ingestLog.close();
+        log.info("post ingest stopped. pending={}", pending.get());
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void syncLoop() {
+        long intervalNanos = properties.getSyncInterval().toNanos();
+        while (running) {
+            syncTimer.record(ingestLog::sync);
+            sleepNanos(intervalNanos);
+        }
+        ingestLog.sync();
+    }
+
+    private void applyLoop() {
+        while (running) {
+            List<Entry> entries = ingestLog.read(appliedPosition, properties.getBatchSize());
+            if (entries.isEmpty()) {
+                sleepNanos(properties.getSyncInterval().toNanos());
+                continue;
+            }
+
+            try {
+                apply(entries);
+            } catch (RuntimeException e) {
+                // 체크포인트를 옮기지 않았으므로 같은 레코드부터 다시 시도한다
+                log.warn("post ingest apply failed. entries={}", entries.size(), e);
+                sleepNanos(TimeUnit.SECONDS.toNanos(1));
+            }
+        }
+    }
+
+    private void apply(List<Entry> entries) {
+        List<Entry> inserted = transactionTemplate.execute(status -> {
+            // 체크포인트를 남기기 전에 죽었다가 다시 넣는 경우 (로그에 같은 id 가 두 번 있는 경우도 한 번만 넣는다)
+            Set<Long> seen = new HashSet<>(jdbcTemplate.queryForList(EXISTING_SQL,
+                Map.of("ids", entries.stream().map(Entry::id).toList()), Long.class));
+            List<Entry> inserts = entries.stream()
+                .filter(entry -> seen.add(entry.id()))
+                .toList();
+
+            jdbcTemplate.getJdbcTemplate().batchUpdate(INSERT_SQL, inserts, inserts.size(), (ps, entry) -> {
+                ps.setLong(1, entry.id());
+                ps.setString(2, entry.title());
+                ps.setBytes(3, CompressedTextConverter.compress(entry.content()));
+                ps.setString(4, Post.excerpt(entry.content()));
+            });
+            return inserts;
+        });
+
+        long next = entries.get(entries.size() - 1).nextPosition();
+        writeCheckpoint(next);
+        appliedPosition = next;
+        pending.addAndGet(-entries.size());
+
+        long now = System.currentTimeMillis();
+        for (Entry entry : entries) {
+            commitLag.record(now - entry.appendedAt(), TimeUnit.MILLISECONDS);
+        }
+
+        // JDBC 로 넣었으므로 하이버네이트가 모르는 변경이다. 첫 페이지 쿼리 캐시를 직접 지운다
+        sessionFactory.getCache().evictQueryRegion(PostRepositoryImpl.FIRST_PAGE_REGION);
+        for (Entry entry : inserted) {
+            eventPublisher.publishEvent(PostChangedEvent.created(entry.id(), entry.title(), entry.content(), 0L));
+        }
+
+        ingestLog.deleteBefore(next);
+        log.debug("post ingest applied. entries={}, inserted={}", entries.size(), inserted.size());
+    }
+
+    private long countPending() {
+        long count = 0;
+        long position = appliedPosition;
+        while (true) {
+            List<Entry> entries = ingestLog.read(position, properties.getBatchSize());
+            if (entries.isEmpty()) {
+                return count;
+            }
+            count += entries.size();
+            position = entries.get(entries.size() - 1).nextPosition();
+        }
+    }
+
+    private double pendingBytes() {
+        PostIngestLog current = ingestLog;
+        return current == null ? 0 : current.getWritePosition() - appliedPosition;
+    }
+
+    private long readCheckpoint() {
+        Path file = directory.resolve(CHECKPOINT);
+        try {
+            if (!Files.exists(file)) {
+                return 0;
+            }
+            return ByteBuffer.wrap(Files.readAllBytes(file)).getLong();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeCheckpoint(long position) {
+        try {
+            Files.write(directory.resolve(CHECKPOINT), ByteBuffer.allocate(Long.BYTES).putLong(position).array(),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.DSYNC);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void sleepNanos(long nanos) {
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void join(Thread thread) {
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.hodol.api.ratelimit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * 동시 처리 수 제한 (AIMD)
+ * <p>
+ * 응답이 latencyThreshold 안에 성공하면 limit 을 1/limit 씩 올리고(한도를 절반 이상 쓰고 있을 때만),
+ * 느리거나 서버 오류면 limit 에 backoff 를 곱해 줄인다. 지연이 무너지기 전에 한도를 넘는 요청은 바로 거절된다.
+ * 상태는 AtomicInteger / AtomicLong(double 비트) 의 CAS 로만 바꾼다.
+ */
+public class AdaptiveConcurrencyLimit {
+
+    private static final double BACKOFF = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong limit;
+
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, long latencyThresholdNanos) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThresholdNanos;
+        this.limit = new AtomicLong(Double.doubleToLongBits(initialLimit));
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) getLimit()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @param latencyNanos 처리 시간
+     * @param failed       서버 오류로 끝났는지
+     */
+    public void release(long latencyNanos, boolean failed) {
+        int current = inFlight.getAndDecrement();
+
+        if (failed || latencyNanos > latencyThresholdNanos) {
+            update(value -> Math.max(minLimit, value * BACKOFF));
+        } else if (current * 2 >= getLimit()) {
+            update(value -> Math.min(maxLimit, value + 1 / value));
+        }
+    }
+
+    /**
+     * 처리 시간을 반영하지 않고 자리만 돌려준다 (스트리밍 응답처럼 처리 시간이 클라이언트에 달린 경우)
+     */
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    public double getLimit() {
+        return Double.longBitsToDouble(limit.get());
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private void update(DoubleUnaryOperator operator) {
+        limit.updateAndGet(bits -> Double.doubleToLongBits(operator.applyAsDouble(Double.longBitsToDouble(bits))));
+    }
+}
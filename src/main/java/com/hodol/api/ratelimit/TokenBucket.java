@@ -0,0 +1,56 @@
+package com.hodol.api.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 토큰 버킷 (GCRA: generic cell rate algorithm)
+ * <p>
+ * 토큰 수 대신 "다음 요청이 도착할 것으로 보는 시각(TAT)" 하나만 AtomicLong 에 두고 CAS 로 옮긴다 (락 없음).
+ * 비용 n 인 요청은 TAT 를 n * (1 / rate) 만큼 미루고, 미룬 TAT 가 지금 + burst 구간을 넘으면 거절한다.
+ */
+public class TokenBucket {
+
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final int burst;
+
+    private final AtomicLong theoreticalArrival = new AtomicLong(Long.MIN_VALUE);
+
+    /**
+     * @param rate  초당 채워지는 토큰 수
+     * @param burst 한 번에 쓸 수 있는 최대 토큰 수
+     */
+    public TokenBucket(double rate, int burst) {
+        this.emissionIntervalNanos = (long) (1_000_000_000L / rate);
+        this.burstToleranceNanos = emissionIntervalNanos * burst;
+        this.burst = burst;
+    }
+
+    /**
+     * @return 0 이면 통과, 아니면 다시 시도할 수 있을 때까지 남은 시간 (ns)
+     */
+    public long tryAcquire(int cost, long now) {
+        // burst 보다 비싼 요청도 버킷이 가득 차 있으면 통과시킨다
+        long increment = emissionIntervalNanos * Math.min(cost, burst);
+
+        while (true) {
+            long tat = theoreticalArrival.get();
+            long next = Math.max(tat, now) + increment;
+            long allowAt = next - burstToleranceNanos;
+            if (allowAt > now) {
+                return allowAt - now;
+            }
+            if (theoreticalArrival.compareAndSet(tat, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * 지금 쓸 수 있는 토큰 수 (메트릭용)
+     */
+    public double available(long now) {
+        long used = Math.max(0, theoreticalArrival.get() - now);
+        return (double) (burstToleranceNanos - used) / emissionIntervalNanos;
+    }
+}
@@ -2,10 +2,35 @@ package com.hodol.api.repository;
 
 import com.hodol.api.domain.Post;
 import com.hodol.api.request.PostSearch;
+import com.hodol.api.response.PostSummaryResponse;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface PostRepositoryCustom {
 
+    // 서비스의 getList 는 스냅샷으로 응답할 수 있으면 트랜잭션을 열지 않으므로 여기서 읽기 전용 트랜잭션을 건다
+    @Transactional(readOnly = true)
     List<Post> getList(PostSearch postSearch);
+
+    List<PostSummaryResponse> getSummaryList(PostSearch postSearch);
+
+    void insertAll(List<Post> posts, int chunkSize);
+
+    long updatePost(Long id, String title, String content, Long expectedVersion);
+
+    long deletePost(Long id, Long expectedVersion);
+
+    Optional<Long> findVersionById(Long id);
+
+    // 벌크 update 직후 같은 트랜잭션에서 읽을 때 쓴다 (2차 캐시는 커밋 뒤에야 비워진다)
+    Optional<Post> findUncachedById(Long id);
+
+    Optional<Long> findViewCountById(Long id);
+
+    List<Post> getMostViewed(int limit);
+
+    void forEachChunk(int chunkSize, Consumer<List<Post>> action);
 }
@@ -3,23 +3,205 @@ package com.hodol.api.repository;
 import com.hodol.api.domain.Post;
 import com.hodol.api.domain.QPost;
 import com.hodol.api.request.PostSearch;
+import com.hodol.api.response.PostSummaryResponse;
+import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.types.Projections;
+import com.querydsl.jpa.impl.JPAQuery;
 import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.querydsl.jpa.impl.JPAUpdateClause;
+import jakarta.persistence.CacheStoreMode;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
+import org.hibernate.jpa.AvailableHints;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
 
 @RequiredArgsConstructor
 public class PostRepositoryImpl implements PostRepositoryCustom {
 
     private final JPAQueryFactory jpaQueryFactory;
+    private final EntityManager entityManager;
 
+    public static final String FIRST_PAGE_REGION = "post-first-page";
 
     @Override
     public List<Post> getList(PostSearch postSearch) {
+        JPAQuery<Post> query = page(jpaQueryFactory.selectFrom(QPost.post), postSearch);
+
+        // 첫 페이지는 쿼리 캐시에 id 목록만 두고 엔티티는 2차 캐시에서 읽는다 (post 테이블이 바뀌면 자동으로 무효화)
+        if (!postSearch.isCursor() && postSearch.getOffset() == 0) {
+            query.setHint(AvailableHints.HINT_CACHEABLE, true)
+                    .setHint(AvailableHints.HINT_CACHE_REGION, FIRST_PAGE_REGION);
+        }
+
+        return query.fetch();
+    }
+
+    @Override
+    public List<PostSummaryResponse> getSummaryList(PostSearch postSearch) {
+        // 엔티티를 만들지 않고 필요한 컬럼만 조회한다 (압축된 본문 대신 excerpt 컬럼을 읽는다)
+        JPAQuery<PostSummaryResponse> query = jpaQueryFactory
+                .select(Projections.constructor(PostSummaryResponse.class,
+                        QPost.post.id,
+                        QPost.post.title,
+                        QPost.post.excerpt))
+                .from(QPost.post);
+
+        return page(query, postSearch)
+                .fetch();
+    }
+
+    @Override
+    public void insertAll(List<Post> posts, int chunkSize) {
+        // chunk 단위로 flush 해서 insert 를 JDBC 배치 하나로 보내고, 영속성 컨텍스트를 비워 메모리를 일정하게 유지한다
+        entityManager.unwrap(Session.class).setJdbcBatchSize(chunkSize);
+
+        for (int i = 0; i < posts.size(); i++) {
+            entityManager.persist(posts.get(i));
+
+            if ((i + 1) % chunkSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    /**
+     * 엔티티를 읽지 않고 null 이 아닌 필드만 update 하고 버전을 올린다
+     *
+     * @param expectedVersion null 이 아니면 버전이 같을 때만 수정한다
+     * @return 변경된 행 수 (0 이면 없는 글이거나 버전이 다른 글)
+     */
+    @Override
+    public long updatePost(Long id, String title, String content, Long expectedVersion) {
+        BooleanBuilder where = matches(id, expectedVersion);
+
+        if (title == null && content == null) {
+            return jpaQueryFactory.selectOne()
+                    .from(QPost.post)
+                    .where(where)
+                    .fetchFirst() != null ? 1 : 0;
+        }
+
+        JPAUpdateClause update = jpaQueryFactory.update(QPost.post)
+                .set(QPost.post.version, QPost.post.version.add(1L))
+                .where(where);
+
+        if (title != null) {
+            update.set(QPost.post.title, title);
+        }
+        if (content != null) {
+            update.set(QPost.post.content, content)
+                    .set(QPost.post.excerpt, Post.excerpt(content));
+        }
+
+        return executeBulk(update::execute);
+    }
+
+    /**
+     * @param expectedVersion null 이 아니면 버전이 같을 때만 삭제한다
+     * @return 삭제된 행 수 (0 이면 없는 글이거나 버전이 다른 글)
+     */
+    @Override
+    public long deletePost(Long id, Long expectedVersion) {
+        return executeBulk(() -> jpaQueryFactory.delete(QPost.post)
+                .where(matches(id, expectedVersion))
+                .execute());
+    }
+
+    @Override
+    public Optional<Long> findVersionById(Long id) {
+        return Optional.ofNullable(jpaQueryFactory.select(QPost.post.version)
+                .from(QPost.post)
+                .where(QPost.post.id.eq(id))
+                .fetchOne());
+    }
+
+    @Override
+    public Optional<Post> findUncachedById(Long id) {
+        // findById 는 2차 캐시의 수정 전 엔티티를 돌려줄 수 있으므로 쿼리로 읽고, 캐시에도 넣지 않는다
+        return Optional.ofNullable(jpaQueryFactory.selectFrom(QPost.post)
+                .where(QPost.post.id.eq(id))
+                .setHint(AvailableHints.HINT_SPEC_CACHE_STORE_MODE, CacheStoreMode.BYPASS)
+                .fetchOne());
+    }
+
+    @Override
+    public Optional<Long> findViewCountById(Long id) {
+        return Optional.ofNullable(jpaQueryFactory.select(QPost.post.viewCount)
+                .from(QPost.post)
+                .where(QPost.post.id.eq(id))
+                .fetchOne());
+    }
+
+    @Override
+    public List<Post> getMostViewed(int limit) {
+        // view_count 인덱스를 역순으로 읽는다
         return jpaQueryFactory.selectFrom(QPost.post)
-                .limit(postSearch.getSize())
-                .offset(postSearch.getOffset())
-                .orderBy(QPost.post.id.desc())
+                .orderBy(QPost.post.viewCount.desc(), QPost.post.id.desc())
+                .limit(limit)
                 .fetch();
     }
-}
\ No newline at end of file
+
+    @Override
+    public void forEachChunk(int chunkSize, Consumer<List<Post>> action) {
+        PostSearch postSearch = PostSearch.builder()
+                .size(chunkSize)
+                .build();
+
+        // 커서 페이징으로 끝까지 읽는다. 다 쓴 chunk 는 분리해서 메모리에 쌓이지 않게 한다
+        // 전체를 훑는 작업이므로 2차 캐시에 넣지 않는다
+        while (true) {
+            List<Post> posts = page(jpaQueryFactory.selectFrom(QPost.post), postSearch)
+                    .setHint(AvailableHints.HINT_SPEC_CACHE_STORE_MODE, CacheStoreMode.BYPASS)
+                    .fetch();
+            if (posts.isEmpty()) {
+                return;
+            }
+
+            action.accept(posts);
+            posts.forEach(entityManager::detach);
+
+            if (posts.size() < chunkSize) {
+                return;
+            }
+            postSearch.setLastId(posts.get(posts.size() - 1).getId());
+        }
+    }
+
+    // 벌크 연산은 영속성 컨텍스트를 거치지 않으므로 앞뒤로 flush / clear 해서 오래된 엔티티가 남지 않게 한다
+    // (2차 캐시의 Post 리전과 쿼리 캐시는 하이버네이트가 벌크 연산 후 무효화한다)
+    private long executeBulk(LongSupplier bulk) {
+        entityManager.flush();
+        long affected = bulk.getAsLong();
+        entityManager.clear();
+        return affected;
+    }
+
+    private BooleanBuilder matches(Long id, Long expectedVersion) {
+        BooleanBuilder where = new BooleanBuilder(QPost.post.id.eq(id));
+        if (expectedVersion != null) {
+            where.and(QPost.post.version.eq(expectedVersion));
+        }
+        return where;
+    }
+
+    private <T> JPAQuery<T> page(JPAQuery<T> query, PostSearch postSearch) {
+        query.limit(postSearch.getSize())
+                .orderBy(QPost.post.id.desc());
+
+        // 커서 모드는 id 인덱스를 타고 바로 시작 지점으로 이동하므로 깊은 페이지도 비용이 일정하다
+        if (postSearch.isCursor()) {
+            return query.where(QPost.post.id.lt(postSearch.getLastId()));
+        }
+
+        return query.offset(postSearch.getOffset());
+    }
+}
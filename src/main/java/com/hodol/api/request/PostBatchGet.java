@@ -0,0 +1,20 @@
+package com.hodol.api.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import java.util.List;
+import lombok.*;
+
+@Setter
+@Getter
+@ToString
+@NoArgsConstructor
+public class PostBatchGet {
+
+    @NotEmpty(message = "조회할 글 id 를 입력해주세요.")
+    private List<Long> ids;
+
+    @Builder
+    public PostBatchGet(List<Long> ids) {
+        this.ids = ids;
+    }
+}
@@ -1,12 +1,18 @@
 package com.hodol.api.request;
 
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+// 쿼리 파라미터는 기본 생성자 + setter 로 바인딩한다 (생성자 바인딩은 빠진 page/size 를 기본값 대신 null 로 채운다)
 @Builder
 @Getter
 @Setter
+@NoArgsConstructor
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
 public class PostSearch {
 
     private static final int MAX_SIZE = 2000;
@@ -17,7 +23,21 @@ public class PostSearch {
     @Builder.Default
     private Integer size = 10;
 
+    // 커서 페이징: 이전 페이지의 마지막 글 id (없으면 offset 페이징)
+    private Long lastId;
+
+    // 제목/본문 검색어 (있으면 검색 점수 순, offset 페이징)
+    private String q;
+
     public long getOffset() {
         return (long) (Math.max(1, page) - 1) * Math.min(size, MAX_SIZE);
     }
+
+    public boolean isCursor() {
+        return lastId != null;
+    }
+
+    public boolean hasQuery() {
+        return q != null && !q.isBlank();
+    }
 }
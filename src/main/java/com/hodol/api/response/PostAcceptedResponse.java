@@ -0,0 +1,16 @@
+package com.hodol.api.response;
+
+import lombok.Getter;
+
+/**
+ * 비동기 작성(202) 응답. 글은 곧 DB 에 들어가고 이 id 로 조회할 수 있다
+ */
+@Getter
+public class PostAcceptedResponse {
+
+    private final Long id;
+
+    public PostAcceptedResponse(Long id) {
+        this.id = id;
+    }
+}
@@ -0,0 +1,19 @@
+package com.hodol.api.response;
+
+import java.util.List;
+import lombok.Getter;
+
+/**
+ * 여러 글 조회 응답. 요청한 순서대로 찾은 글을 담고, 없는 id 는 실패 대신 missing 으로 알려준다
+ */
+@Getter
+public class PostBatchResponse {
+
+    private final List<PostResponse> posts;
+    private final List<Long> missing;
+
+    public PostBatchResponse(List<PostResponse> posts, List<Long> missing) {
+        this.posts = posts;
+        this.missing = missing;
+    }
+}
@@ -0,0 +1,25 @@
+package com.hodol.api.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.hodol.api.event.PostChangedEvent;
+import lombok.Getter;
+
+/**
+ * 변경 스트림(SSE)으로 보내는 이벤트. 본문은 담지 않는다 (필요하면 단건 / 여러 글 조회로 읽는다)
+ */
+@Getter
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PostEventResponse {
+
+    private final Long id;
+    private final String type;
+    private final String title;
+    private final Long version;
+
+    public PostEventResponse(PostChangedEvent event) {
+        this.id = event.getPostId();
+        this.type = event.getType().name().toLowerCase();
+        this.title = event.getTitle();
+        this.version = event.getVersion();
+    }
+}
@@ -1,27 +1,55 @@
 package com.hodol.api.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.hodol.api.domain.Post;
 import lombok.Builder;
 import lombok.Getter;
 
 @Getter
-@Builder
 public class PostResponse {
 
     private final Long id;
     private final String title;
     private final String content;
+    private final Long version;
+
+    // 단건 조회 / 수정 응답에는 조회수를 넣지 않는다 (단건 조회는 X-View-Count 헤더로 보낸다). 목록은 withViewCount 로 채운다
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private final Long viewCount;
 
     public PostResponse(Post post) {
+        this(post, post.getViewCount());
+    }
+
+    public PostResponse(Post post, long viewCount) {
         this.id = post.getId();
         this.title = post.getTitle();
         this.content = post.getContent();
+        this.version = post.getVersion();
+        this.viewCount = viewCount;
+    }
+
+    /**
+     * 목록 / 수정 응답용 (제목을 자르지 않는다)
+     */
+    public PostResponse(Long id, String title, String content, Long version, Long viewCount) {
+        this.id = id;
+        this.title = title;
+        this.content = content;
+        this.version = version;
+        this.viewCount = viewCount;
     }
 
     @Builder
-    public PostResponse(Long id, String title, String content) {
+    public PostResponse(Long id, String title, String content, Long version) {
         this.id = id;
         this.title = title.substring(0, Math.min(title.length(), 10));
         this.content = content;
+        this.version = version;
+        this.viewCount = null;
+    }
+
+    public PostResponse withViewCount(long viewCount) {
+        return new PostResponse(id, title, content, version, viewCount);
     }
 }
@@ -0,0 +1,25 @@
+package com.hodol.api.response;
+
+import com.hodol.api.domain.Post;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * 목록 화면용 응답 (본문 전체 대신 앞부분 일부만 내려준다)
+ */
+@Getter
+public class PostSummaryResponse {
+
+    public static final int EXCERPT_LENGTH = Post.EXCERPT_LENGTH;
+
+    private final Long id;
+    private final String title;
+    private final String excerpt;
+
+    @Builder
+    public PostSummaryResponse(Long id, String title, String excerpt) {
+        this.id = id;
+        this.title = title;
+        this.excerpt = excerpt;
+    }
+}
@@ -0,0 +1,138 @@
+package com.hodol.api.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 제목/본문 BM25 역색인 (메모리)
+ * <p>
+ * 스프링/JPA 에 의존하지 않으므로 서블릿 앱(PostSearchIndex)과 리액티브 앱이 같은 토큰화/점수 계산을 쓴다.
+ * 검색은 모든 검색어 토큰을 포함하는 글만 골라 BM25 점수 순으로 정렬한다.
+ */
+public class InvertedIndex {
+
+    private static final int TITLE_BOOST = 3;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    // 토큰 -> (글 id -> 가중치 반영된 빈도)
+    private final Map<String, Map<Long, Integer>> postings = new ConcurrentHashMap<>();
+
+    // 글 id -> 색인된 토큰 (수정/삭제 시 기존 토큰을 지우기 위해)
+    private final Map<Long, Document> documents = new ConcurrentHashMap<>();
+
+    private final AtomicLong totalLength = new AtomicLong();
+
+    public synchronized void index(Long postId, String title, String content) {
+        remove(postId);
+
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String token : PostTokenizer.tokenize(title)) {
+            frequencies.merge(token, TITLE_BOOST, Integer::sum);
+        }
+        for (String token : PostTokenizer.tokenize(content)) {
+            frequencies.merge(token, 1, Integer::sum);
+        }
+
+        int length = frequencies.values().stream().mapToInt(Integer::intValue).sum();
+        documents.put(postId, new Document(frequencies.keySet().toArray(String[]::new), length));
+        totalLength.addAndGet(length);
+
+        frequencies.forEach((token, frequency) ->
+            postings.computeIfAbsent(token, t -> new ConcurrentHashMap<>()).put(postId, frequency));
+    }
+
+    public synchronized void remove(Long postId) {
+        Document document = documents.remove(postId);
+        if (document == null) {
+            return;
+        }
+
+        totalLength.addAndGet(-document.length());
+        for (String token : document.tokens()) {
+            Map<Long, Integer> posting = postings.get(token);
+            if (posting != null) {
+                posting.remove(postId);
+                if (posting.isEmpty()) {
+                    postings.remove(token);
+                }
+            }
+        }
+    }
+
+    /**
+     * 점수 순으로 정렬한 글 id 중 offset 부터 limit 개를 돌려준다
+     */
+    public List<Long> search(String query, long offset, int limit) {
+        List<String> tokens = PostTokenizer.tokenize(query).stream()
+            .distinct()
+            .toList();
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+
+        List<Map<Long, Integer>> matched = new ArrayList<>(tokens.size());
+        for (String token : tokens) {
+            Map<Long, Integer> posting = postings.get(token);
+            if (posting == null) {
+                return List.of();
+            }
+            matched.add(posting);
+        }
+
+        // 가장 짧은 posting 을 기준으로 나머지와 교집합을 구한다
+        matched.sort(Comparator.comparingInt(Map::size));
+
+        int documentCount = Math.max(1, documents.size());
+        double averageLength = Math.max(1.0, (double) totalLength.get() / documentCount);
+
+        List<Hit> hits = new ArrayList<>();
+        candidates:
+        for (Map.Entry<Long, Integer> candidate : matched.get(0).entrySet()) {
+            Long postId = candidate.getKey();
+            Document document = documents.get(postId);
+            if (document == null) {
+                continue;
+            }
+
+            double score = 0;
+            for (Map<Long, Integer> posting : matched) {
+                Integer frequency = posting.get(postId);
+                if (frequency == null) {
+                    continue candidates;
+                }
+                double idf = Math.log(1 + (documentCount - posting.size() + 0.5) / (posting.size() + 0.5));
+                double norm = K1 * (1 - B + B * document.length() / averageLength);
+                score += idf * frequency * (K1 + 1) / (frequency + norm);
+            }
+            hits.add(new Hit(postId, score));
+        }
+
+        return hits.stream()
+            .sorted(Comparator.comparingDouble(Hit::score).reversed()
+                .thenComparing(Hit::postId, Comparator.reverseOrder()))
+            .skip(offset)
+            .limit(limit)
+            .map(Hit::postId)
+            .toList();
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    public int terms() {
+        return postings.size();
+    }
+
+    private record Document(String[] tokens, int length) {
+    }
+
+    private record Hit(Long postId, double score) {
+    }
+}
@@ -0,0 +1,62 @@
+package com.hodol.api.search;
+
+import com.hodol.api.event.PostChangedEvent;
+import com.hodol.api.repository.PostRepository;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * 제목/본문 역색인 (메모리, {@link InvertedIndex})
+ * <p>
+ * 기동 시 DB 에서 한 번 채우고, 이후에는 글 변경 이벤트(커밋 이후)로 갱신한다.
+ * 검색은 모든 검색어 토큰을 포함하는 글만 골라 BM25 점수 순으로 정렬한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PostSearchIndex {
+
+    private final PostRepository postRepository;
+
+    private final InvertedIndex index = new InvertedIndex();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        postRepository.forEachChunk(500, posts ->
+            posts.forEach(post -> index(post.getId(), post.getTitle(), post.getContent())));
+
+        log.info("post search index built. documents={}, terms={}", index.size(), index.terms());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(PostChangedEvent event) {
+        switch (event.getType()) {
+            case CREATED, EDITED -> index(event.getPostId(), event.getTitle(), event.getContent());
+            case DELETED -> remove(event.getPostId());
+        }
+    }
+
+    public void index(Long postId, String title, String content) {
+        index.index(postId, title, content);
+    }
+
+    public void remove(Long postId) {
+        index.remove(postId);
+    }
+
+    /**
+     * 점수 순으로 정렬한 글 id 중 offset 부터 limit 개를 돌려준다
+     */
+    public List<Long> search(String query, long offset, int limit) {
+        return index.search(query, offset, limit);
+    }
+
+    public int size() {
+        return index.size();
+    }
+}
@@ -0,0 +1,108 @@
+package com.hodol.api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hodol.api.config.PostProperties;
+import com.hodol.api.event.PostChangedEvent;
+import com.hodol.api.response.PostResponse;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * 단건 조회 응답을 gzip 된 JSON 바이트로 보관한다
+ * <p>
+ * 작성/수정 시점(커밋 이후)에 한 번 직렬화 + 압축해 두고, 조회는 저장된 바이트를 그대로 내보내서
+ * 요청마다 JSON 인코딩과 압축을 반복하지 않는다. 전체 크기(byte)로 제한한다.
+ * <p>
+ * 저장하는 gzip 은 완결된 JSON 문서 하나를 담은 멤버 하나다. 요청마다 달라지는 조회수는 본문에 넣지 않고
+ * 응답 헤더(X-View-Count)로 보낸다 (첫 gzip 멤버만 푸는 클라이언트/프록시도 온전한 JSON 을 받는다).
+ */
+@Component
+public class CompressedPostStore {
+
+    public record CompressedPost(Long id, Long version, byte[] gzip, int jsonLength) {
+    }
+
+    private final boolean enabled;
+    private final ObjectWriter writer;
+    private final Cache<Long, CompressedPost> cache;
+    private final DistributionSummary jsonBytes;
+    private final DistributionSummary gzipBytes;
+
+    public CompressedPostStore(PostProperties postProperties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        PostProperties.Precompressed precompressed = postProperties.getPrecompressed();
+
+        this.enabled = precompressed.isEnabled();
+        this.writer = objectMapper.writerFor(PostResponse.class);
+        this.cache = Caffeine.newBuilder()
+            .maximumWeight(precompressed.getMaximumBytes())
+            .weigher((Long id, CompressedPost post) -> post.gzip().length)
+            .expireAfterWrite(Duration.ofMinutes(10))
+            .recordStats()
+            .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "postCompressed");
+        this.jsonBytes = DistributionSummary.builder("hodol.post.representation.bytes")
+            .tag("encoding", "identity")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+        this.gzipBytes = DistributionSummary.builder("hodol.post.representation.bytes")
+            .tag("encoding", "gzip")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public CompressedPost get(Long postId, Supplier<PostResponse> loader) {
+        return cache.get(postId, id -> compress(loader.get()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(PostChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+
+        switch (event.getType()) {
+            case CREATED, EDITED -> cache.put(event.getPostId(), compress(PostResponse.builder()
+                .id(event.getPostId())
+                .title(event.getTitle())
+                .content(event.getContent())
+                .version(event.getVersion())
+                .build()));
+            case DELETED -> cache.invalidate(event.getPostId());
+        }
+    }
+
+    private CompressedPost compress(PostResponse response) {
+        try {
+            byte[] json = writer.writeValueAsBytes(response);
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, json.length / 3));
+            try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+                gzip.write(json);
+            }
+            byte[] compressed = out.toByteArray();
+
+            jsonBytes.record(json.length);
+            gzipBytes.record(compressed.length);
+            return new CompressedPost(response.getId(), response.getVersion(), compressed, json.length);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.hodol.api.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.hodol.api.config.CacheConfig;
+import com.hodol.api.event.PostChangedEvent;
+import com.hodol.api.exception.PostNotFound;
+import com.hodol.api.response.PostResponse;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * 단건 조회 캐시 (CacheConfig.POST)
+ * <p>
+ * 수정/삭제 커밋 전에 읽은 조회가 커밋 이후에 캐시에 넣으려 할 수 있다 (캐시 miss 와 수정이 겹친 경우).
+ * 그래서 항목마다 버전을 비교해서 더 오래된 버전으로는 덮어쓰지 않고, 삭제는 항목을 지우는 대신 삭제 표시를 남긴다.
+ * 삭제 표시도 다른 항목처럼 TTL 이 지나면 사라진다 (글 id 는 다시 쓰이지 않는다).
+ */
+@Component
+public class PostCache {
+
+    private static final Object DELETED = new Object();
+
+    private final Cache<Object, Object> cache;
+
+    @SuppressWarnings("unchecked")
+    public PostCache(CacheManager cacheManager) {
+        this.cache = (Cache<Object, Object>) cacheManager.getCache(CacheConfig.POST).getNativeCache();
+    }
+
+    /**
+     * @return 캐시에 없으면 null. 삭제 표시가 있으면 PostNotFound
+     */
+    public PostResponse get(Long postId) {
+        return present(cache.getIfPresent(postId));
+    }
+
+    /**
+     * 캐시에 있는 값보다 새로운 버전일 때만 넣는다
+     *
+     * @return 넣은 뒤 캐시에 남아 있는 값 (더 새로운 값이 이미 있었으면 그 값)
+     */
+    public PostResponse put(PostResponse post) {
+        return present(cache.asMap().merge(post.getId(), post, PostCache::newer));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(PostChangedEvent event) {
+        switch (event.getType()) {
+            case EDITED -> cache.asMap().merge(event.getPostId(), PostResponse.builder()
+                .id(event.getPostId())
+                .title(event.getTitle())
+                .content(event.getContent())
+                .version(event.getVersion())
+                .build(), PostCache::newer);
+            case DELETED -> cache.put(event.getPostId(), DELETED);
+            case CREATED -> {
+                // 처음 조회할 때 넣는다
+            }
+        }
+    }
+
+    private static Object newer(Object current, Object candidate) {
+        if (current == DELETED || candidate == DELETED) {
+            return DELETED;
+        }
+        return ((PostResponse) candidate).getVersion() > ((PostResponse) current).getVersion() ? candidate : current;
+    }
+
+    private static PostResponse present(Object value) {
+        if (value == DELETED) {
+            throw new PostNotFound();
+        }
+        return (PostResponse) value;
+    }
+}
@@ -0,0 +1,372 @@
+package com.hodol.api.service;
+
+import com.hodol.api.config.PostProperties;
+import com.hodol.api.event.PostChangedEvent;
+import com.hodol.api.exception.ServiceUnavailable;
+import com.hodol.api.response.PostEventResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * 글 변경 스트림 (GET /posts/stream, Server-Sent Events)
+ * <p>
+ * 커밋된 변경 이벤트에 1 부터 순번을 붙여 크기가 정해진 링 버퍼에 넣는다. 구독자는 각자 마지막으로 받은 순번(cursor)만 가지고,
+ * 링 버퍼의 (cursor, 최신 순번] 구간이 그 구독자의 큐다. 큐는 queueSize 까지만 밀릴 수 있고, 넘치면 구독자를 끊는다.
+ * 새 이벤트가 들어오면 구독자마다 전송 작업을 하나만 예약한다 (이미 예약되어 있으면 그 작업이 이어서 보낸다).
+ * <p>
+ * 전송은 크기가 정해진 쓰기 스레드(writerThreads 개)가 하고, 누구도 쓰기를 기다리며 붙잡혀 있지 않는다. 쓰기가
+ * writeTimeout 을 넘기면 감시 스레드가 그 구독자를 끊는다. 막힌 쓰기는 스레드 하나만 붙잡고 (컨테이너의 소켓 쓰기
+ * 타임아웃이 풀어 준다), 나머지 구독자는 남은 쓰기 스레드로 받는다. 쓰기 스레드가 모두 막힌 쓰기에 잡혀 있으면 새 구독은
+ * 503 으로 거절한다.
+ * <p>
+ * 이벤트 id 는 "{기동 시각}-{순번}" 이다. 순번은 프로세스가 다시 뜨면 처음부터 시작하므로, 다른 기동의 id 나 링 버퍼에서
+ * 밀려난 id 로 다시 연결하면 reset 이벤트를 보내고 최신 위치로 옮긴다 (클라이언트는 목록을 다시 읽어야 한다).
+ */
+@Component
+public class PostEventStream {
+
+    public static final String RESET = "reset";
+
+    private record StreamEvent(long id, PostEventResponse post) {
+    }
+
+    private final String epoch = String.valueOf(System.currentTimeMillis());
+
+    private final int capacity;
+    private final int queueSize;
+    private final int maxSubscribers;
+    private final int writerThreads;
+    private final long timeoutMillis;
+    private final long writeTimeoutMillis;
+    private final AtomicReferenceArray<StreamEvent> ring;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService writers;
+    private final ScheduledThreadPoolExecutor watchdog;
+
+    // 쓰기 타임아웃으로 끊었지만 아직 쓰기 스레드가 돌아오지 않은 구독자 수 (writerThreads 를 넘지 않는다)
+    private final AtomicInteger stalled = new AtomicInteger();
+
+    private final Counter published;
+    private final Counter resets;
+    private final Counter overflowDropped;
+    private final Counter timeoutDropped;
+
+    // 마지막으로 넣은 이벤트의 순번 (append 안에서만 바뀐다)
+    private volatile long sequence;
+
+    public PostEventStream(PostProperties postProperties, MeterRegistry meterRegistry) {
+        PostProperties.Stream stream = postProperties.getStream();
+        this.capacity = stream.getBufferSize();
+        this.queueSize = Math.min(stream.getQueueSize(), capacity);
+        this.maxSubscribers = stream.getMaxSubscribers();
+        this.writerThreads = stream.getWriterThreads();
+        this.timeoutMillis = stream.getTimeout().toMillis();
+        this.writeTimeoutMillis = stream.getWriteTimeout().toMillis();
+        this.ring = new AtomicReferenceArray<>(capacity);
+
+        // 구독자마다 전송 작업은 하나만 예약되므로 대기열은 구독자 수를 넘지 않는다
+        AtomicInteger threads = new AtomicInteger();
+        this.writers = Executors.newFixedThreadPool(writerThreads, runnable -> {
+            Thread thread = new Thread(runnable, "post-stream-writer-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.watchdog = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "post-stream-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.watchdog.setRemoveOnCancelPolicy(true);
+
+        this.published = Counter.builder("hodol.post.stream.events")
+            .description("변경 스트림에 넣은 이벤트 수")
+            .register(meterRegistry);
+        this.resets = Counter.builder("hodol.post.stream.resets")
+            .description("뒤처지거나 이어 받을 수 없어서 reset 을 보낸 횟수")
+            .register(meterRegistry);
+        this.overflowDropped = dropped(meterRegistry, "overflow");
+        this.timeoutDropped = dropped(meterRegistry, "timeout");
+        Gauge.builder("hodol.post.stream.subscribers", subscribers, Set::size)
+            .description("변경 스트림 구독자 수")
+            .register(meterRegistry);
+        Gauge.builder("hodol.post.stream.stalled", stalled, AtomicInteger::get)
+            .description("쓰기 타임아웃으로 끊었지만 소켓 쓰기가 아직 끝나지 않은 구독자 수")
+            .register(meterRegistry);
+    }
+
+    /**
+     * @param lastEventId 마지막으로 받은 이벤트 id (EventSource 가 다시 연결할 때 보내는 Last-Event-ID). 없으면 지금부터 받는다
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        return subscribe(lastEventId, new SseEmitter(timeoutMillis));
+    }
+
+    SseEmitter subscribe(String lastEventId, SseEmitter emitter) {
+        // 쓰기 스레드가 모두 막힌 쓰기에 잡혀 있으면 지금 구독자에게도 보내지 못한다
+        if (subscribers.size() >= maxSubscribers || stalled.get() >= writerThreads) {
+            throw new ServiceUnavailable();
+        }
+
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+
+        // 위치를 정하는 동안 이벤트가 들어와서 큐 크기 확인을 건너뛰지 않도록 append 와 같은 락 안에서 등록한다
+        synchronized (this) {
+            long current = sequence;
+            Long position = sequenceOf(lastEventId);
+            boolean resumable = position != null && position >= 0 && position <= current
+                && current - position <= queueSize;
+            subscriber.cursor = resumable ? position : current;
+            subscriber.resetPending = lastEventId != null && !resumable;
+            subscribers.add(subscriber);
+        }
+        schedule(subscriber);
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(PostChangedEvent event) {
+        long id = append(new PostEventResponse(event));
+
+        for (Subscriber subscriber : subscribers) {
+            if (id - subscriber.cursor > queueSize) {
+                // 보내는 속도보다 이벤트가 빨리 쌓였다 (읽지 않는 클라이언트). 다시 연결하면 reset 을 받는다
+                if (drop(subscriber)) {
+                    overflowDropped.increment();
+                }
+            } else {
+                schedule(subscriber);
+            }
+        }
+    }
+
+    // 연결이 끊긴 구독자를 찾아내고, 중간 프록시가 유휴 연결을 닫지 않게 한다
+    @Scheduled(fixedDelayString = "${hodol.post.stream.heartbeat-interval:PT15S}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.heartbeatPending = true;
+            schedule(subscriber);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        writers.shutdownNow();
+        watchdog.shutdownNow();
+        for (Subscriber subscriber : subscribers) {
+            // 쓰는 중인 emitter 는 쓰기가 끝날 때 닫힌다 (emitter 는 쓰는 동안 잠겨 있다)
+            if (!subscriber.scheduled.get()) {
+                subscriber.emitter.complete();
+            }
+        }
+        subscribers.clear();
+    }
+
+    int size() {
+        return subscribers.size();
+    }
+
+    private synchronized long append(PostEventResponse post) {
+        long id = sequence + 1;
+        ring.set((int) (id % capacity), new StreamEvent(id, post));
+        sequence = id;
+        published.increment();
+        return id;
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.scheduled.compareAndSet(false, true)) {
+            try {
+                writers.execute(() -> deliver(subscriber));
+            } catch (RejectedExecutionException e) {
+                subscriber.scheduled.set(false);
+            }
+        }
+    }
+
+    // 목록에서만 빼고 emitter 는 건드리지 않는다 (쓰기가 막혀 있으면 emitter 도 잠겨 있다). 닫는 것은 쓰기 작업이 한다
+    private boolean drop(Subscriber subscriber) {
+        subscriber.dropped = true;
+        if (subscribers.remove(subscriber)) {
+            schedule(subscriber);
+            return true;
+        }
+        return false;
+    }
+
+    // 쓰기 스레드에서 돈다
+    private void deliver(Subscriber subscriber) {
+        Write write = new Write();
+        ScheduledFuture<?> timer;
+        try {
+            timer = watchdog.schedule(() -> timeout(subscriber, write), writeTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            subscriber.scheduled.set(false);
+            return;
+        }
+
+        try {
+            write(subscriber, write);
+        } catch (RuntimeException e) {
+            drop(subscriber);
+        } finally {
+            timer.cancel(false);
+            subscriber.scheduled.set(false);
+        }
+
+        // 보내는 동안 새 이벤트가 들어왔으면 이어서 보내고, 그 사이에 끊겼으면 닫는다
+        if (subscriber.dropped ? !subscriber.closed : subscriber.cursor < sequence || subscriber.heartbeatPending) {
+            schedule(subscriber);
+        }
+    }
+
+    // 감시 스레드에서 돈다. 쓰기가 writeTimeout 안에 끝나지 않았으면 구독자를 끊는다 (쓰기 스레드는 쓰기가 풀릴 때 돌아온다)
+    private void timeout(Subscriber subscriber, Write write) {
+        stalled.incrementAndGet();
+        if (!write.state.compareAndSet(Write.RUNNING, Write.STALLED)) {
+            // 타이머가 취소되기 직전에 쓰기가 끝났다
+            stalled.decrementAndGet();
+            return;
+        }
+        if (drop(subscriber)) {
+            timeoutDropped.increment();
+        }
+    }
+
+    private void write(Subscriber subscriber, Write write) {
+        try {
+            if (subscriber.dropped) {
+                closeDropped(subscriber);
+                return;
+            }
+
+            if (subscriber.resetPending) {
+                reset(subscriber, sequence);
+            }
+
+            long end = sequence;
+            while (subscriber.cursor < end && !subscriber.dropped) {
+                long next = subscriber.cursor + 1;
+                StreamEvent event = ring.get((int) (next % capacity));
+
+                // 링 버퍼가 한 바퀴 돌아 덮어썼다 (큐 크기를 버퍼보다 작게 두므로 보통은 그 전에 끊긴다)
+                if (event == null || event.id() != next) {
+                    reset(subscriber, end);
+                    break;
+                }
+
+                subscriber.emitter.send(SseEmitter.event()
+                    .id(eventId(event.id()))
+                    .name(event.post().getType())
+                    .data(event.post(), MediaType.APPLICATION_JSON));
+                subscriber.cursor = next;
+            }
+
+            if (subscriber.heartbeatPending && !subscriber.dropped) {
+                subscriber.heartbeatPending = false;
+                subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+            }
+
+            if (subscriber.dropped) {
+                closeDropped(subscriber);
+            }
+        } catch (IOException | IllegalStateException e) {
+            // 클라이언트가 연결을 끊었다 (또는 막혀 있던 쓰기가 컨테이너의 쓰기 타임아웃으로 끝났다)
+            subscriber.dropped = true;
+            subscriber.closed = true;
+            subscribers.remove(subscriber);
+            subscriber.emitter.completeWithError(e);
+        } finally {
+            if (!write.state.compareAndSet(Write.RUNNING, Write.DONE)) {
+                stalled.decrementAndGet();
+            }
+        }
+    }
+
+    private void closeDropped(Subscriber subscriber) {
+        subscriber.closed = true;
+        subscriber.emitter.complete();
+    }
+
+    private void reset(Subscriber subscriber, long position) throws IOException {
+        subscriber.resetPending = false;
+        subscriber.cursor = position;
+        resets.increment();
+        subscriber.emitter.send(SseEmitter.event()
+            .id(eventId(position))
+            .name(RESET)
+            .data("{}", MediaType.APPLICATION_JSON));
+    }
+
+    private String eventId(long position) {
+        return epoch + "-" + position;
+    }
+
+    // 이번 기동에서 붙인 id 면 순번, 다른 기동의 id 거나 형식이 맞지 않으면 null
+    private Long sequenceOf(String eventId) {
+        if (eventId == null || !eventId.startsWith(epoch + "-")) {
+            return null;
+        }
+        try {
+            return Long.parseLong(eventId.substring(epoch.length() + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static Counter dropped(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("hodol.post.stream.dropped")
+            .tag("reason", reason)
+            .description("큐가 넘치거나 쓰기가 막혀서 끊은 구독자 수")
+            .register(meterRegistry);
+    }
+
+    private static final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        // 마지막으로 보낸 이벤트 순번 (전송 작업은 구독자마다 하나씩만 돌기 때문에 그 안에서만 바뀐다)
+        private volatile long cursor;
+        private volatile boolean resetPending;
+        private volatile boolean heartbeatPending;
+        private volatile boolean dropped;
+        private volatile boolean closed;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+    }
+
+    // 쓰기 한 번의 상태. 타임아웃과 쓰기 완료가 겹쳐도 stalled 를 한 번만 세고 한 번만 뺀다
+    private static final class Write {
+
+        private static final int RUNNING = 0;
+        private static final int DONE = 1;
+        private static final int STALLED = 2;
+
+        private final AtomicInteger state = new AtomicInteger(RUNNING);
+    }
+}
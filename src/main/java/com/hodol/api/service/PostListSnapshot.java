@@ -0,0 +1,180 @@
+package com.hodol.api.service;
+
+import com.hodol.api.config.PostProperties;
+import com.hodol.api.event.PostChangedEvent;
+import com.hodol.api.repository.PostRepository;
+import com.hodol.api.request.PostSearch;
+import com.hodol.api.response.PostResponse;
+import java.util.Arrays;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * 최신 글 N 개의 스냅샷 (id 역순, copy-on-write)
+ * <p>
+ * 기동 시 DB 에서 한 번 채우고 이후에는 글 변경 이벤트(커밋 이후)로 배열을 새로 만들어 바꿔 끼운다.
+ * 읽기는 volatile 참조 하나만 읽으므로 락이 없다. 범위를 벗어난 페이지는 null 을 돌려주고 DB 에서 읽게 한다.
+ * 이벤트를 거치지 않고 DB 를 직접 바꾸는 경우는 반영되지 않는다.
+ */
+@Slf4j
+@Component
+public class PostListSnapshot {
+
+    private final PostRepository postRepository;
+    private final boolean enabled;
+    private final int capacity;
+
+    // null 이면 아직 준비되지 않은 것
+    private volatile Snapshot snapshot;
+
+    public PostListSnapshot(PostRepository postRepository, PostProperties postProperties) {
+        this.postRepository = postRepository;
+        this.enabled = postProperties.getSnapshot().isEnabled();
+        this.capacity = postProperties.getSnapshot().getSize();
+    }
+
+    /**
+     * @param posts    id 역순으로 정렬된 최신 글
+     * @param complete 전체 글이 다 들어 있는지 (글 수가 capacity 보다 적은 경우)
+     */
+    private record Snapshot(PostResponse[] posts, boolean complete) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void reload() {
+        if (!enabled) {
+            return;
+        }
+
+        PostResponse[] posts = postRepository.getList(PostSearch.builder().size(capacity).build()).stream()
+            .map(PostResponse::new)
+            .toArray(PostResponse[]::new);
+        snapshot = new Snapshot(posts, posts.length < capacity);
+
+        log.debug("post list snapshot loaded. posts={}, complete={}", posts.length, posts.length < capacity);
+    }
+
+    /**
+     * 스냅샷으로 응답할 수 있으면 해당 페이지를, 아니면 null 을 돌려준다 (검색어가 있는 요청은 다루지 않는다)
+     */
+    public List<PostResponse> page(PostSearch postSearch) {
+        Snapshot current = snapshot;
+        if (current == null || postSearch.hasQuery() || postSearch.getSize() == null) {
+            return null;
+        }
+
+        PostResponse[] posts = current.posts();
+        long from = postSearch.isCursor()
+            ? firstBelow(posts, postSearch.getLastId())
+            : postSearch.getOffset();
+        long to = from + postSearch.getSize();
+
+        if (to > posts.length && !current.complete()) {
+            return null;
+        }
+
+        return List.of(Arrays.copyOfRange(posts, (int) Math.min(from, posts.length), (int) Math.min(to, posts.length)));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void on(PostChangedEvent event) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return;
+        }
+
+        switch (event.getType()) {
+            case CREATED -> insert(current, new PostResponse(event.getPostId(), event.getTitle(), event.getContent(),
+                event.getVersion(), 0L));
+            case EDITED -> replace(current, event);
+            case DELETED -> remove(current, event.getPostId());
+        }
+    }
+
+    private void insert(Snapshot current, PostResponse post) {
+        PostResponse[] posts = current.posts();
+        int index = indexOf(posts, post.getId());
+        if (index >= 0) {
+            return;
+        }
+
+        // 스냅샷의 가장 오래된 글보다 오래된 글은, 전체가 들어 있는 경우가 아니면 사이에 빠진 글이 있을 수 있다
+        int insertAt = -index - 1;
+        if (insertAt == posts.length && (!current.complete() || posts.length >= capacity)) {
+            return;
+        }
+
+        int length = Math.min(posts.length + 1, capacity);
+        PostResponse[] updated = new PostResponse[length];
+        System.arraycopy(posts, 0, updated, 0, insertAt);
+        updated[insertAt] = post;
+        System.arraycopy(posts, insertAt, updated, insertAt + 1, length - insertAt - 1);
+
+        snapshot = new Snapshot(updated, current.complete() && posts.length < capacity);
+    }
+
+    private void replace(Snapshot current, PostChangedEvent event) {
+        PostResponse[] posts = current.posts();
+        int index = indexOf(posts, event.getPostId());
+        if (index < 0) {
+            return;
+        }
+
+        // 늦게 도착한 이전 수정 이벤트로 되돌리지 않는다
+        PostResponse existing = posts[index];
+        if (existing.getVersion() != null && event.getVersion() != null && existing.getVersion() > event.getVersion()) {
+            return;
+        }
+
+        PostResponse[] updated = posts.clone();
+        updated[index] = new PostResponse(existing.getId(), event.getTitle(), event.getContent(), event.getVersion(),
+            existing.getViewCount());
+        snapshot = new Snapshot(updated, current.complete());
+    }
+
+    private void remove(Snapshot current, Long postId) {
+        PostResponse[] posts = current.posts();
+        int index = indexOf(posts, postId);
+        if (index < 0) {
+            return;
+        }
+
+        PostResponse[] updated = new PostResponse[posts.length - 1];
+        System.arraycopy(posts, 0, updated, 0, index);
+        System.arraycopy(posts, index + 1, updated, index, posts.length - index - 1);
+        snapshot = new Snapshot(updated, current.complete());
+
+        // 삭제로 절반 아래로 줄면 DB 에서 다시 채운다
+        if (!current.complete() && updated.length < capacity / 2) {
+            reload();
+        }
+    }
+
+    // id 역순 배열에서 이진 탐색. 없으면 -(삽입 위치) - 1
+    private static int indexOf(PostResponse[] posts, long id) {
+        int low = 0;
+        int high = posts.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midId = posts[mid].getId();
+            if (midId > id) {
+                low = mid + 1;
+            } else if (midId < id) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    // 커서(lastId) 보다 작은 첫 글의 위치
+    private static int firstBelow(PostResponse[] posts, long lastId) {
+        int index = indexOf(posts, lastId);
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+}
@@ -0,0 +1,70 @@
+package com.hodol.api.service;
+
+import com.hodol.api.config.ReplicaRoutingDataSource;
+import com.hodol.api.event.PostChangedEvent;
+import com.hodol.api.request.PostSearch;
+import com.hodol.api.response.PostResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.List;
+import java.util.function.Supplier;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * 같은 글 / 같은 목록 조건으로 동시에 들어온 DB 조회를 하나로 합친다
+ * <p>
+ * 결과 캐시(CacheConfig.POST)와 상관없이 동작한다. 캐시가 있으면 캐시 miss 가 몰리는 순간만, 없으면 모든 동시 조회를 합친다.
+ * 글이 바뀌면(커밋 이후) 진행 중인 조회를 잊어서, 변경 이후에 온 요청은 새로 읽는다.
+ * 조회는 먼저 시작한 요청의 스레드에서 그 요청의 라우팅(replica / primary)으로 돈다. 그래서 자기 쓰기 직후라 primary 에 고정된
+ * 요청이 replica 조회에 합류해서 복제가 늦은 값을 받지 않도록, 어느 쪽에서 읽는지도 키에 넣는다.
+ * 합쳐서 아낀 조회 수는 hodol.post.singleflight.shared (operation=get|list) 로 센다.
+ */
+@Component
+public class PostReadCoalescer {
+
+    private final SingleFlight<PostKey, PostResponse> posts;
+    private final SingleFlight<ListKey, List<PostResponse>> lists;
+
+    public PostReadCoalescer(MeterRegistry meterRegistry) {
+        this.posts = new SingleFlight<>(shared(meterRegistry, "get"));
+        this.lists = new SingleFlight<>(shared(meterRegistry, "list"));
+    }
+
+    private record PostKey(Long postId, boolean replica) {
+    }
+
+    private record ListKey(Integer page, Integer size, Long lastId, String q, boolean replica) {
+
+        ListKey(PostSearch postSearch) {
+            this(postSearch.getPage(), postSearch.getSize(), postSearch.getLastId(), postSearch.getQ(), readsReplica());
+        }
+    }
+
+    public PostResponse get(Long postId, Supplier<PostResponse> loader) {
+        return posts.execute(new PostKey(postId, readsReplica()), loader);
+    }
+
+    public List<PostResponse> getList(PostSearch postSearch, Supplier<List<PostResponse>> loader) {
+        return lists.execute(new ListKey(postSearch), loader);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(PostChangedEvent event) {
+        posts.forget(new PostKey(event.getPostId(), true));
+        posts.forget(new PostKey(event.getPostId(), false));
+        lists.forgetAll();
+    }
+
+    // 조회는 읽기 전용 트랜잭션이다
+    private static boolean readsReplica() {
+        return ReplicaRoutingDataSource.routesToReplica(true);
+    }
+
+    private static Counter shared(MeterRegistry meterRegistry, String operation) {
+        return Counter.builder("hodol.post.singleflight.shared")
+            .tag("operation", operation)
+            .description("동시에 들어온 같은 조회에 합류해서 아낀 DB 조회 수")
+            .register(meterRegistry);
+    }
+}
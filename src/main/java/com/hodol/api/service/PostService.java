@@ -1,27 +1,62 @@
 package com.hodol.api.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.hodol.api.config.PostProperties;
 import com.hodol.api.domain.Post;
-import com.hodol.api.domain.PostEditor;
+import com.hodol.api.event.PostChangedEvent;
+import com.hodol.api.exception.HodollogException;
+import com.hodol.api.exception.InvalidRequest;
 import com.hodol.api.exception.PostNotFound;
+import com.hodol.api.exception.PreconditionFailed;
 import com.hodol.api.repository.PostRepository;
 import com.hodol.api.request.PostCreate;
 import com.hodol.api.request.PostEdit;
 import com.hodol.api.request.PostSearch;
+import com.hodol.api.response.PostBatchResponse;
 import com.hodol.api.response.PostResponse;
-import jakarta.transaction.Transactional;
+import com.hodol.api.response.PostSummaryResponse;
+import com.hodol.api.search.PostSearchIndex;
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
+@Timed(PostService.SERVICE_TIMER) // public 메소드마다 method 태그로 구분된 타이머
 public class PostService {
 
+    public static final String SERVICE_TIMER = "hodol.post.service";
+
     private final PostRepository postRepository;
+    private final PostProperties postProperties;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final PostSearchIndex postSearchIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PostCache postCache;
+    private final PostViewCounter postViewCounter;
+    private final PostListSnapshot postListSnapshot;
+    private final PostReadCoalescer postReadCoalescer;
 
     public void write(PostCreate postCreate) {
         Post post = Post.builder()
@@ -30,45 +65,299 @@ public class PostService {
             .build();
 
         postRepository.save(post);
+        eventPublisher.publishEvent(PostChangedEvent.created(post));
+    }
+
+    @Transactional
+    public void writeAll(List<PostCreate> postCreates) {
+        PostProperties.Bulk bulk = postProperties.getBulk();
+
+        if (postCreates == null || postCreates.isEmpty()) {
+            throw new InvalidRequest("posts", "등록할 글이 없습니다.");
+        }
+
+        if (postCreates.size() > bulk.getMaxSize()) {
+            throw new InvalidRequest("posts", "한 번에 " + bulk.getMaxSize() + "개까지 등록할 수 있습니다.");
+        }
+
+        validateAll(postCreates);
+
+        List<Post> posts = postCreates.stream()
+            .map(postCreate -> Post.builder()
+                .title(postCreate.getTitle())
+                .content(postCreate.getContent())
+                .build())
+            .toList();
+
+        postRepository.insertAll(posts, bulk.getChunkSize());
+        posts.forEach(post -> eventPublisher.publishEvent(PostChangedEvent.created(post)));
     }
 
+    /**
+     * 캐시 miss 일 때 같은 글을 동시에 읽는 요청은 DB 조회 하나를 함께 기다린다.
+     * 기다리는 동안 커넥션을 잡지 않도록 트랜잭션은 리포지토리 조회(findById, readOnly)에서만 연다.
+     * 읽은 값은 캐시에 있는 것보다 새로운 버전일 때만 캐시에 넣는다 (PostCache)
+     */
     public PostResponse get(Long postId) {
-        Post post = postRepository.findById(postId)
-            .orElseThrow(PostNotFound::new);
+        PostResponse cached = postCache.get(postId);
+        if (cached != null) {
+            return cached;
+        }
 
-        return PostResponse.builder()
-            .id(post.getId())
-            .title(post.getTitle())
-            .content(post.getContent())
-            .build();
+        return postCache.put(postReadCoalescer.get(postId, () -> single(postRepository.findById(postId)
+            .orElseThrow(PostNotFound::new))));
     }
 
+    /**
+     * 앞쪽 페이지는 최신 글 스냅샷에서 바로 응답한다 (트랜잭션/커넥션 없이). 범위를 벗어나면 DB 에서 읽는다
+     */
     public List<PostResponse> getList(PostSearch postSearch) {
-        return postRepository.getList(postSearch).stream()
-            .map(PostResponse::new)
+        if (postSearch.hasQuery()) {
+            return search(postSearch);
+        }
+
+        List<PostResponse> snapshot = postListSnapshot.page(postSearch);
+        if (snapshot != null) {
+            return snapshot.stream()
+                .map(post -> post.withViewCount(postViewCounter.count(post.getId(), post.getViewCount())))
+                .collect(Collectors.toList());
+        }
+
+        // 같은 조건의 동시 요청은 DB 조회를 함께 쓰고, 조회수만 각자 최신 값으로 채운다
+        List<PostResponse> posts = postReadCoalescer.getList(postSearch, () -> postRepository.getList(postSearch).stream()
+            .map(post -> new PostResponse(post, post.getViewCount()))
+            .toList());
+        return posts.stream()
+            .map(post -> post.withViewCount(postViewCounter.count(post.getId(), post.getViewCount())))
             .collect(Collectors.toList());
     }
 
+    /**
+     * 여러 글을 id 로 한 번에 조회한다. chunkSize 개씩 where id in (...) 로 읽고 요청한 순서대로 돌려준다.
+     * 없는 id 는 PostNotFound 대신 missing 으로 알려준다 (중복된 id 는 한 번만 담는다). 조회수는 올리지 않는다.
+     * 항목은 단건 조회와 같은 모양에 조회수를 더한 것이다
+     */
+    @Transactional(readOnly = true)
+    public PostBatchResponse getAll(List<Long> ids) {
+        PostProperties.BatchGet batchGet = postProperties.getBatchGet();
+
+        if (ids == null || ids.isEmpty()) {
+            throw new InvalidRequest("ids", "조회할 글 id 를 입력해주세요.");
+        }
+
+        if (ids.size() > batchGet.getMaxSize()) {
+            throw new InvalidRequest("ids", "한 번에 " + batchGet.getMaxSize() + "개까지 조회할 수 있습니다.");
+        }
+
+        List<Long> distinctIds = ids.stream()
+            .filter(Objects::nonNull)
+            .distinct()
+            .toList();
+
+        Map<Long, Post> found = new HashMap<>();
+        for (int from = 0; from < distinctIds.size(); from += batchGet.getChunkSize()) {
+            List<Long> chunk = distinctIds.subList(from, Math.min(from + batchGet.getChunkSize(), distinctIds.size()));
+            postRepository.findAllById(chunk).forEach(post -> found.put(post.getId(), post));
+        }
+
+        List<PostResponse> posts = new ArrayList<>(found.size());
+        List<Long> missing = new ArrayList<>();
+        for (Long id : distinctIds) {
+            Post post = found.get(id);
+            if (post != null) {
+                posts.add(single(post).withViewCount(postViewCounter.count(post.getId(), post.getViewCount())));
+            } else {
+                missing.add(id);
+            }
+        }
+        return new PostBatchResponse(posts, missing);
+    }
+
+    /**
+     * 조회수 순 목록. DB 에 반영된 조회수로 고른 뒤 아직 반영하지 않은 증가분을 더해 다시 정렬한다
+     */
+    @Transactional(readOnly = true)
+    public List<PostResponse> getMostViewed(int size) {
+        int limit = Math.max(1, Math.min(size, postProperties.getViews().getMostViewedMaxSize()));
+
+        return postRepository.getMostViewed(limit).stream()
+            .map(this::withViewCount)
+            .sorted(Comparator.comparing(PostResponse::getViewCount).reversed()
+                .thenComparing(PostResponse::getId, Comparator.reverseOrder()))
+            .collect(Collectors.toList());
+    }
+
+    @Transactional(readOnly = true)
+    public List<PostSummaryResponse> getSummaryList(PostSearch postSearch) {
+        return postRepository.getSummaryList(postSearch);
+    }
+
+    /**
+     * 모든 글을 한 줄에 하나씩 JSON 으로 내보낸다 (NDJSON)
+     */
+    public void export(OutputStream outputStream) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(PostResponse.class);
+
+        try {
+            postRepository.forEachChunk(postProperties.getExport().getChunkSize(), posts -> {
+                try {
+                    for (Post post : posts) {
+                        outputStream.write(writer.writeValueAsBytes(new PostResponse(post)));
+                        outputStream.write('\n');
+                    }
+                    // chunk 마다 내보내서 첫 바이트가 전체 조회를 기다리지 않도록 한다
+                    outputStream.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * 조건부 요청(If-None-Match) 확인용. 캐시에 있으면 캐시의 버전을, 없으면 버전 컬럼만 읽는다 (본문은 읽지 않음)
+     */
+    @Transactional(readOnly = true)
+    public Long getVersion(Long postId) {
+        PostResponse cached = postCache.get(postId);
+        if (cached != null) {
+            return cached.getVersion();
+        }
+
+        return postRepository.findVersionById(postId)
+            .orElseThrow(PostNotFound::new);
+    }
+
     @Transactional
     public PostResponse edit(Long id, PostEdit postEdit) {
-        Post post = postRepository.findById(id)
-            .orElseThrow(PostNotFound::new);
+        return edit(id, postEdit, null);
+    }
 
-        PostEditor.PostEditorBuilder editorBuilder = post.toEditor();
+    /**
+     * 글을 읽지 않고 update 한 번으로 수정한다. 단건 조회 캐시는 커밋 이후 수정 이벤트로 갱신된다 (PostCache)
+     * <p>
+     * 응답 제목은 수정 전과 같이 자르지 않는다 (단건 조회만 제목을 10자로 자른다)
+     *
+     * @param expectedVersion null 이 아니면 이 버전일 때만 수정한다 (If-Match)
+     */
+    @Transactional
+    public PostResponse edit(Long id, PostEdit postEdit, Long expectedVersion) {
+        if (postRepository.updatePost(id, postEdit.getTitle(), postEdit.getContent(), expectedVersion) == 0) {
+            throw notFoundOrModified(id, expectedVersion);
+        }
 
-        PostEditor postEditor = editorBuilder.title(postEdit.getTitle())
-            .content(postEdit.getContent())
-            .build();
+        // 일부 필드만 넘어온 경우에만 나머지 값을 알기 위해 다시 읽는다
+        String title = postEdit.getTitle();
+        String content = postEdit.getContent();
+        Long version;
+        if (title == null || content == null) {
+            Post post = postRepository.findUncachedById(id)
+                .orElseThrow(PostNotFound::new);
+            title = post.getTitle();
+            content = post.getContent();
+            version = post.getVersion();
+        } else if (expectedVersion != null) {
+            // 버전이 같을 때만 update 되었으므로 새 버전은 하나 올라간 값이다
+            version = expectedVersion + 1;
+        } else {
+            version = postRepository.findVersionById(id)
+                .orElseThrow(PostNotFound::new);
+        }
 
-        post.edit(postEditor);
+        eventPublisher.publishEvent(PostChangedEvent.edited(id, title, content, version));
 
-        return new PostResponse(post);
+        return new PostResponse(id, title, content, version, null);
     }
 
+    @Transactional
     public void delete(Long id) {
-        Post post = postRepository.findById(id)
-            .orElseThrow(PostNotFound::new);
+        delete(id, null);
+    }
+
+    /**
+     * @param expectedVersion null 이 아니면 이 버전일 때만 삭제한다 (If-Match)
+     */
+    @Transactional
+    public void delete(Long id, Long expectedVersion) {
+        if (postRepository.deletePost(id, expectedVersion) == 0) {
+            throw notFoundOrModified(id, expectedVersion);
+        }
+
+        eventPublisher.publishEvent(PostChangedEvent.deleted(id));
+    }
+
+    // 단건 조회와 여러 글 조회의 항목은 같은 모양이다 (제목 10 자까지)
+    private static PostResponse single(Post post) {
+        return PostResponse.builder()
+            .id(post.getId())
+            .title(post.getTitle())
+            .content(post.getContent())
+            .version(post.getVersion())
+            .build();
+    }
+
+    private PostResponse withViewCount(Post post) {
+        return new PostResponse(post, postViewCounter.count(post.getId(), post.getViewCount()));
+    }
+
+    private HodollogException notFoundOrModified(Long id, Long expectedVersion) {
+        if (expectedVersion != null && postRepository.existsById(id)) {
+            return new PreconditionFailed();
+        }
+        return new PostNotFound();
+    }
+
+    private List<PostResponse> search(PostSearch postSearch) {
+        List<Long> ids = postSearchIndex.search(postSearch.getQ(), postSearch.getOffset(), postSearch.getSize());
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        // in 조회는 순서를 보장하지 않으므로 검색 점수 순서로 다시 맞춘다
+        Map<Long, Post> posts = postRepository.findAllById(ids).stream()
+            .collect(Collectors.toMap(Post::getId, Function.identity()));
+
+        return ids.stream()
+            .map(posts::get)
+            .filter(Objects::nonNull)
+            .map(this::withViewCount)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * 전부 검사한 뒤 실패한 항목을 "[순번].필드" 키로 모아서 한 번에 알려준다
+     */
+    private void validateAll(List<PostCreate> postCreates) {
+        InvalidRequest invalidRequest = new InvalidRequest();
+
+        for (int i = 0; i < postCreates.size(); i++) {
+            PostCreate postCreate = postCreates.get(i);
+            String prefix = "[" + i + "].";
+
+            if (postCreate == null) {
+                invalidRequest.addValidation("[" + i + "]", "글 정보가 없습니다.");
+                continue;
+            }
+
+            Set<ConstraintViolation<PostCreate>> violations = validator.validate(postCreate);
+            if (!violations.isEmpty()) {
+                for (ConstraintViolation<PostCreate> violation : violations) {
+                    invalidRequest.addValidation(prefix + violation.getPropertyPath(), violation.getMessage());
+                }
+                continue;
+            }
+
+            try {
+                postCreate.validate();
+            } catch (InvalidRequest e) {
+                e.getValidation().forEach((field, message) -> invalidRequest.addValidation(prefix + field, message));
+            }
+        }
 
-        postRepository.delete(post);
+        if (!invalidRequest.getValidation().isEmpty()) {
+            throw invalidRequest;
+        }
     }
 }
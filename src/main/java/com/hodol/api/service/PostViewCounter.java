@@ -0,0 +1,225 @@
+package com.hodol.api.service;
+
+import com.hodol.api.domain.Post;
+import com.hodol.api.event.PostChangedEvent;
+import com.hodol.api.repository.PostRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * 조회수 (write-behind)
+ * <p>
+ * 조회할 때는 글마다 LongAdder 를 올리기만 하고(락 없음), 주기적으로 모인 증가분을 JDBC 배치 update 한 번으로 DB 에 더한다.
+ * 종료할 때도 남은 증가분을 반영한다. 반영 전에 프로세스가 죽으면 그 사이의 조회수는 잃는다.
+ * <p>
+ * 글마다 처음 조회될 때 DB 조회수(base)를 flush 락 없이 읽는다 (같은 글의 동시 조회는 한 번만 읽는다).
+ * flush 와 겹치면 base 가 잠깐 어긋날 수 있지만, flush 가 반영한 글의 base 는 DB 값으로 다시 맞춘다.
+ * flush 할 때 한 주기 동안 조회되지 않은(반영할 증가분이 없는) 글은 메모리에서 뺀다.
+ */
+@Slf4j
+@Component
+public class PostViewCounter {
+
+    private static final String FLUSH_SQL = "update post set view_count = view_count + ? where id = ?";
+    private static final String PERSISTED_SQL = "select id, view_count from post where id in (%s)";
+    private static final int PERSISTED_CHUNK_SIZE = 500;
+    private static final long UNKNOWN = Long.MIN_VALUE;
+
+    private final PostRepository postRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final SingleFlight<Long, Long> baseLoads;
+
+    // flush 끼리만 겹치지 않게 한다 (조회는 이 락을 잡지 않는다)
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public PostViewCounter(PostRepository postRepository, JdbcTemplate jdbcTemplate,
+        EntityManagerFactory entityManagerFactory, MeterRegistry meterRegistry) {
+        this.postRepository = postRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+        this.baseLoads = new SingleFlight<>(Counter.builder("hodol.post.singleflight.shared")
+            .tag("operation", "view-count")
+            .description("동시에 들어온 같은 조회에 합류해서 아낀 DB 조회 수")
+            .register(meterRegistry));
+
+        Gauge.builder("hodol.post.views.entries", entries, Map::size)
+            .description("조회수를 모으고 있는 글 수")
+            .register(meterRegistry);
+    }
+
+    /**
+     * 조회수를 1 올리고 현재 조회수(DB 값 + 아직 반영하지 않은 증가분)를 돌려준다
+     */
+    public long increment(Long postId) {
+        while (true) {
+            Entry entry = entries.get(postId);
+            if (entry == null) {
+                entry = entries.computeIfAbsent(postId, id -> new Entry());
+            }
+            entry.views.increment();
+
+            // flush 가 메모리에서 빼는 중인 항목에 올렸다. 되돌리고 새 항목에 다시 올린다
+            if (entry.retired) {
+                entry.views.decrement();
+                Thread.onSpinWait();
+                continue;
+            }
+
+            long base = entry.base.get();
+            if (base == UNKNOWN) {
+                base = loadBase(postId, entry);
+            }
+            return base + entry.views.sum();
+        }
+    }
+
+    /**
+     * DB 에서 읽은 조회수에 아직 반영하지 않은 증가분을 더한다
+     */
+    public long count(Long postId, long persisted) {
+        Entry entry = entries.get(postId);
+        if (entry == null) {
+            return persisted;
+        }
+
+        long base = entry.base.get();
+        if (base != UNKNOWN) {
+            return base + entry.views.sum();
+        }
+        return persisted + entry.views.sum() - entry.flushed;
+    }
+
+    @Scheduled(fixedDelayString = "${hodol.post.views.flush-interval:PT5S}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            List<Long> ids = new ArrayList<>();
+            List<Long> deltas = new ArrayList<>();
+            List<Object[]> arguments = new ArrayList<>();
+
+            entries.forEach((postId, entry) -> {
+                long delta = entry.views.sum() - entry.flushed;
+                if (delta > 0) {
+                    ids.add(postId);
+                    deltas.add(delta);
+                    arguments.add(new Object[]{delta, postId});
+                } else {
+                    evictIfIdle(postId, entry);
+                }
+            });
+
+            if (arguments.isEmpty()) {
+                return;
+            }
+
+            try {
+                jdbcTemplate.batchUpdate(FLUSH_SQL, arguments);
+            } catch (RuntimeException e) {
+                // flushed 를 올리지 않았으므로 다음 주기에 다시 시도된다
+                log.warn("view count flush failed. posts={}", ids.size(), e);
+                return;
+            }
+
+            // JDBC 로 바꿨으므로 하이버네이트가 모르는 변경이다. 2차 캐시의 해당 글을 직접 지운다
+            Cache cache = entityManagerFactory.getCache();
+            for (int i = 0; i < ids.size(); i++) {
+                cache.evict(Post.class, ids.get(i));
+
+                Entry entry = entries.get(ids.get(i));
+                if (entry != null) {
+                    entry.flushed += deltas.get(i);
+                }
+            }
+
+            resetBase(ids);
+            log.debug("view counts flushed. posts={}", ids.size());
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(PostChangedEvent event) {
+        if (event.getType() == PostChangedEvent.Type.DELETED) {
+            entries.remove(event.getPostId());
+        }
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    // 처음 조회될 때 DB 값을 읽는다. 이미 다른 요청(또는 flush)이 정했으면 그 값을 쓴다
+    private long loadBase(Long postId, Entry entry) {
+        long flushed = entry.flushed;
+        long persisted = baseLoads.execute(postId, () -> postRepository.findViewCountById(postId).orElse(0L));
+
+        entry.base.compareAndSet(UNKNOWN, persisted - flushed);
+        return entry.base.get();
+    }
+
+    // 반영한 글은 DB 값으로 base 를 다시 맞춘다 (처음 읽을 때 flush 와 겹쳐 어긋났더라도 여기서 바로잡힌다)
+    private void resetBase(List<Long> ids) {
+        for (int from = 0; from < ids.size(); from += PERSISTED_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + PERSISTED_CHUNK_SIZE, ids.size()));
+            String placeholders = String.join(",", Collections.nCopies(chunk.size(), "?"));
+
+            jdbcTemplate.query(PERSISTED_SQL.formatted(placeholders), resultSet -> {
+                Entry entry = entries.get(resultSet.getLong("id"));
+                if (entry != null) {
+                    entry.base.set(resultSet.getLong("view_count") - entry.flushed);
+                }
+            }, chunk.toArray());
+        }
+    }
+
+    // 반영할 증가분이 없다 = 지난 flush 이후 조회되지 않았다. 지우는 사이에 들어온 조회가 있으면 남겨 둔다
+    private void evictIfIdle(Long postId, Entry entry) {
+        entry.retired = true;
+        if (entry.views.sum() == entry.flushed) {
+            entries.remove(postId, entry);
+        } else {
+            entry.retired = false;
+        }
+    }
+
+    private static final class Entry {
+
+        // 이 인스턴스가 센 조회수 (리셋하지 않는다)
+        private final LongAdder views = new LongAdder();
+
+        // views 중 DB 에 반영한 양 (flushLock 안에서만 바뀐다)
+        private volatile long flushed;
+
+        // DB 조회수 - 그 시점의 flushed. 현재 조회수 = base + views
+        private final AtomicLong base = new AtomicLong(UNKNOWN);
+
+        // flush 가 메모리에서 빼려는 항목 (이 항목에는 더 이상 조회수를 올리지 않는다)
+        private volatile boolean retired;
+    }
+}
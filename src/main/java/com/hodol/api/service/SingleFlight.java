@@ -0,0 +1,72 @@
+package com.hodol.api.service;
+
+import io.micrometer.core.instrument.Counter;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * 같은 키로 동시에 들어온 조회를 하나로 합친다 (single-flight)
+ * <p>
+ * 먼저 온 요청이 loader 를 실행하고, 그동안 같은 키로 온 요청은 그 결과(또는 예외)를 함께 받는다.
+ * 결과를 보관하지는 않는다. 끝나면 바로 지우므로 이후 요청은 다시 읽는다.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Counter shared;
+
+    /**
+     * @param shared 다른 요청의 조회를 함께 받아서 아낀 조회 수
+     */
+    public SingleFlight(Counter shared) {
+        this.shared = shared;
+    }
+
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> created = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            shared.increment();
+            return join(existing);
+        }
+
+        try {
+            V value = loader.get();
+            created.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            // 기다리던 요청도 같은 예외(PostNotFound 등)를 받는다
+            created.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, created);
+        }
+    }
+
+    /**
+     * 진행 중인 조회를 잊는다. 이후 요청은 진행 중인 조회에 합류하지 않고 새로 읽는다 (변경 이후에 온 요청이 이전 값을 받지 않도록)
+     */
+    public void forget(K key) {
+        inFlight.remove(key);
+    }
+
+    public void forgetAll() {
+        inFlight.clear();
+    }
+
+    private static <V> V join(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package db.migration;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.zip.Deflater;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+/**
+ * post.content (clob) 를 압축된 blob 으로 바꾸고 목록 요약용 excerpt 컬럼을 채운다
+ * <p>
+ * 압축 형식은 엔티티가 쓰는 CompressedTextConverter 와 같아야 하므로 SQL 대신 자바 마이그레이션으로 옮긴다.
+ * <p>
+ * 자바 마이그레이션은 체크섬이 없어서 운영 코드를 가져다 쓰면 코덱이나 요약 규칙이 바뀔 때 새 DB 에서 V2 가 하는 일이 조용히 바뀐다.
+ * 그래서 이 버전의 형식(아래 코덱, 요약 100 자)을 여기에 그대로 고정해 둔다. 이 파일은 고치지 않는다.
+ * <pre>
+ * [0][UTF-8]                          256 바이트보다 짧거나 압축해도 줄지 않는 경우
+ * [1][int UTF-8 길이][raw deflate]     그 외
+ * </pre>
+ */
+public class V2__Compress_post_content extends BaseJavaMigration {
+
+    private static final int CHUNK_SIZE = 500;
+
+    private static final int EXCERPT_LENGTH = 100;
+    private static final int MIN_COMPRESS_BYTES = 256;
+    private static final byte RAW = 0;
+    private static final byte DEFLATE = 1;
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+
+        try (Statement statement = connection.createStatement()) {
+            // blob 은 PostgreSQL 호환 모드에서 쓸 수 없으므로 표준 이름을 쓴다
+            statement.execute("alter table post add column content_data binary large object");
+            statement.execute("alter table post add column excerpt varchar(" + EXCERPT_LENGTH + ")");
+        }
+
+        // id 순으로 chunk 단위로 옮긴다 (전체 본문을 한 번에 메모리에 올리지 않는다)
+        long lastId = Long.MIN_VALUE;
+        while (true) {
+            int moved = 0;
+            try (PreparedStatement select = connection.prepareStatement(
+                "select id, content from post where id > ? order by id limit " + CHUNK_SIZE);
+                 PreparedStatement update = connection.prepareStatement(
+                     "update post set content_data = ?, excerpt = ? where id = ?")) {
+                select.setLong(1, lastId);
+                try (ResultSet resultSet = select.executeQuery()) {
+                    while (resultSet.next()) {
+                        lastId = resultSet.getLong("id");
+                        String content = resultSet.getString("content");
+
+                        update.setBytes(1, compress(content));
+                        update.setString(2, excerpt(content));
+                        update.setLong(3, lastId);
+                        update.addBatch();
+                        moved++;
+                    }
+                }
+                if (moved > 0) {
+                    update.executeBatch();
+                }
+            }
+
+            if (moved < CHUNK_SIZE) {
+                break;
+            }
+        }
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("alter table post drop column content");
+            statement.execute("alter table post alter column content_data rename to content");
+        }
+    }
+
+    private static String excerpt(String content) {
+        if (content == null || content.length() <= EXCERPT_LENGTH) {
+            return content;
+        }
+        return content.substring(0, EXCERPT_LENGTH);
+    }
+
+    private static byte[] compress(String text) {
+        if (text == null) {
+            return null;
+        }
+
+        byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+        return utf8.length < MIN_COMPRESS_BYTES ? raw(utf8) : deflate(utf8);
+    }
+
+    private static byte[] raw(byte[] utf8) {
+        byte[] stored = new byte[utf8.length + 1];
+        stored[0] = RAW;
+        System.arraycopy(utf8, 0, stored, 1, utf8.length);
+        return stored;
+    }
+
+    private static byte[] deflate(byte[] utf8) {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        try {
+            deflater.setInput(utf8);
+            deflater.finish();
+
+            byte[] stored = new byte[1 + Integer.BYTES + utf8.length];
+            int length = 1 + Integer.BYTES;
+            while (!deflater.finished() && length < stored.length) {
+                length += deflater.deflate(stored, length, stored.length - length);
+            }
+            if (!deflater.finished()) {
+                return raw(utf8);
+            }
+
+            stored[0] = DEFLATE;
+            ByteBuffer.wrap(stored, 1, Integer.BYTES).putInt(utf8.length);
+            return Arrays.copyOf(stored, length);
+        } finally {
+            deflater.end();
+        }
+    }
+}
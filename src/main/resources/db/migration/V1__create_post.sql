@@ -0,0 +1,16 @@
+-- Post 엔티티와 같은 스키마 (prod 프로필은 ddl-auto=validate 로 맞는지 확인한다)
+
+-- pooled 옵티마이저: allocationSize(50) 와 같은 증가폭
+create sequence post_seq start with 1 increment by 50;
+
+create table post
+(
+    id         bigint       not null,
+    title      varchar(255),
+    content    clob,
+    version    bigint,
+    view_count bigint       not null default 0,
+    primary key (id)
+);
+
+create index idx_post_view_count on post (view_count);
@@ -0,0 +1,153 @@
+package com.hodol.api;
+
+import com.hodol.api.domain.CompressedTextConverter;
+import com.hodol.api.domain.Post;
+import com.hodol.api.repository.PostRepository;
+import com.hodol.api.request.PostCreate;
+import com.hodol.api.request.PostEdit;
+import com.hodol.api.response.PostResponse;
+import com.hodol.api.service.PostService;
+import com.hodol.api.service.PostViewCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationVersion;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+/**
+ * prod 프로필 (파일 모드 H2 + Flyway 마이그레이션 + ddl-auto=validate) 통합 테스트
+ */
+@SpringBootTest
+@ActiveProfiles("prod")
+class ProdProfileTest {
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private PostViewCounter postViewCounter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private Flyway flyway;
+
+    // 실행마다 새 파일 DB 를 쓴다
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) throws IOException {
+        Path directory = Files.createTempDirectory("hodol-prod");
+        registry.add("spring.datasource.url", () -> "jdbc:h2:file:" + directory.resolve("hodol").toAbsolutePath()
+            + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH");
+    }
+
+    @BeforeEach
+    void clean() {
+        postRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("마이그레이션으로 만든 스키마에 글을 쓰고, 수정하고, 조회수를 반영할 수 있다")
+    void test1() {
+        // given
+        postService.writeAll(IntStream.range(0, 120)
+            .mapToObj(i -> PostCreate.builder()
+                .title("제목 " + i)
+                .content("내용 " + i)
+                .build())
+            .toList());
+        Post post = postRepository.findAll().get(0);
+
+        // when
+        PostResponse edited = postService.edit(post.getId(), PostEdit.builder()
+            .title("수정")
+            .content("수정된 내용")
+            .build());
+        postViewCounter.increment(post.getId());
+        postViewCounter.flush();
+
+        // then
+        Assertions.assertEquals(120L, postRepository.count());
+        Assertions.assertEquals(1L, edited.getVersion());
+        Assertions.assertEquals(1L, postRepository.findViewCountById(post.getId()).orElseThrow());
+    }
+
+    @Test
+    @DisplayName("조회수 인덱스는 마이그레이션으로 만들어진다")
+    void test2() {
+        List<String> indexes = jdbcTemplate.execute((ConnectionCallback<List<String>>) connection -> {
+            List<String> names = new ArrayList<>();
+            try (ResultSet resultSet = connection.getMetaData().getIndexInfo(null, null, "post", false, false)) {
+                while (resultSet.next()) {
+                    names.add(resultSet.getString("INDEX_NAME").toLowerCase());
+                }
+            }
+            return names;
+        });
+
+        Assertions.assertTrue(flyway.info().applied().length >= 1);
+        Assertions.assertTrue(indexes.contains("idx_post_view_count"));
+    }
+
+    @Test
+    @DisplayName("커넥션 풀 대기 시간과 사용 중인 커넥션 수를 메트릭으로 내보낸다")
+    void test3() {
+        postRepository.count();
+
+        Assertions.assertNotNull(meterRegistry.find("hikaricp.connections.acquire").tag("pool", "hodol-pool").timer());
+        Assertions.assertNotNull(meterRegistry.find("hikaricp.connections.active").tag("pool", "hodol-pool").gauge());
+        Assertions.assertNotNull(meterRegistry.find("hikaricp.connections.pending").tag("pool", "hodol-pool").gauge());
+    }
+
+    @Test
+    @DisplayName("V1 에 있던 본문은 V2 마이그레이션 뒤 엔티티의 코덱으로 읽히고 요약이 채워진다")
+    void test4() throws IOException {
+        // given: 새 파일 DB 를 V1 까지만 만들고 짧은 글, 긴 글을 넣는다
+        Path directory = Files.createTempDirectory("hodol-v2");
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:file:"
+            + directory.resolve("hodol").toAbsolutePath() + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE", "sa", "");
+        String shortContent = "짧은 내용";
+        String longContent = "긴 내용 ".repeat(200);
+
+        Flyway.configure().dataSource(dataSource).target(MigrationVersion.fromVersion("1")).load().migrate();
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.update("insert into post (id, title, content, view_count) values (1, 'a', ?, 0), (2, 'b', ?, 0)",
+            shortContent, longContent);
+
+        // when
+        Flyway.configure().dataSource(dataSource).load().migrate();
+
+        // then
+        byte[] stored = jdbc.queryForObject("select content from post where id = 2", byte[].class);
+        Assertions.assertTrue(stored.length < longContent.getBytes(StandardCharsets.UTF_8).length);
+        Assertions.assertEquals(longContent, CompressedTextConverter.decompress(stored));
+        Assertions.assertEquals(shortContent, CompressedTextConverter.decompress(
+            jdbc.queryForObject("select content from post where id = 1", byte[].class)));
+        Assertions.assertEquals(longContent.substring(0, Post.EXCERPT_LENGTH),
+            jdbc.queryForObject("select excerpt from post where id = 2", String.class));
+    }
+}
@@ -0,0 +1,138 @@
+package com.hodol.api.config;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hodol.api.request.PostBatchGet;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.List;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+@AutoConfigureMockMvc
+@SpringBootTest(properties = {
+    "hodol.post.rate-limit.enabled=true",
+    "hodol.post.rate-limit.client-rate=1",
+    "hodol.post.rate-limit.client-burst=5",
+    "hodol.post.rate-limit.address-rate=1",
+    "hodol.post.rate-limit.address-burst=8"
+})
+class RateLimitConfigTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    @DisplayName("큰 목록 요청은 비용이 커서 클라이언트 버킷을 금방 비우고, 이후 요청은 429 와 Retry-After 를 받는다")
+    void test1() throws Exception {
+        // given: size=80 -> 비용 1 + 80 / 20 = 5 (클라이언트 버킷 전체, 주소 버킷은 3 남는다)
+        mockMvc.perform(get("/posts?page=1&size=80")
+                .with(remoteAddr("10.0.0.1"))
+                .header(DataSourceRoutingConfig.CLIENT_ID_HEADER, "heavy"))
+            .andExpect(status().isOk());
+
+        // expected
+        mockMvc.perform(get("/posts/1")
+                .with(remoteAddr("10.0.0.1"))
+                .header(DataSourceRoutingConfig.CLIENT_ID_HEADER, "heavy"))
+            .andExpect(status().isTooManyRequests())
+            .andExpect(header().exists(HttpHeaders.RETRY_AFTER))
+            .andExpect(jsonPath("$.code").value("429"))
+            .andExpect(jsonPath("$.message").value("요청이 너무 많습니다. 잠시 후 다시 시도해주세요."));
+
+        // 같은 주소의 다른 클라이언트는 자기 버킷이 남아 있다
+        mockMvc.perform(get("/posts?page=1&size=10")
+                .with(remoteAddr("10.0.0.1"))
+                .header(DataSourceRoutingConfig.CLIENT_ID_HEADER, "light"))
+            .andExpect(status().isOk());
+
+        Assertions.assertTrue(meterRegistry.get("hodol.ratelimit.rejected").tag("reason", "client")
+            .counter().count() >= 1);
+        Assertions.assertEquals(0, meterRegistry.get("hodol.ratelimit.concurrency.in-flight").gauge().value());
+        Assertions.assertTrue(meterRegistry.get("hodol.ratelimit.concurrency.limit").gauge().value() >= 4);
+    }
+
+    @Test
+    @DisplayName("X-Client-Id 를 바꿔가며 보내도 같은 주소의 요청은 주소 버킷에서 막힌다")
+    void test2() throws Exception {
+        // given
+        double rejectedBefore = meterRegistry.get("hodol.ratelimit.rejected").tag("reason", "address")
+            .counter().count();
+
+        // when: 주소 버킷은 8, 매 요청마다 새 클라이언트 id (클라이언트 버킷은 늘 가득 차 있다)
+        int accepted = 0;
+        for (int i = 0; i < 20; i++) {
+            int status = mockMvc.perform(get("/posts/1")
+                    .with(remoteAddr("10.0.0.2"))
+                    .header(DataSourceRoutingConfig.CLIENT_ID_HEADER, "spoof-" + i))
+                .andReturn()
+                .getResponse()
+                .getStatus();
+            if (status == 429) {
+                break;
+            }
+            accepted++;
+        }
+
+        // then
+        Assertions.assertTrue(accepted >= 8 && accepted < 20);
+        Assertions.assertTrue(meterRegistry.get("hodol.ratelimit.rejected").tag("reason", "address")
+            .counter().count() > rejectedBefore);
+    }
+
+    @Test
+    @DisplayName("여러 글 조회는 id 수에 비례한 비용을 낸다")
+    void test3() throws Exception {
+        // given: id 80 개 -> 비용 1 + 80 / 20 = 5 (클라이언트 버킷 전체)
+        mockMvc.perform(post("/posts/batch-get")
+                .with(remoteAddr("10.0.0.3"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(batchGet(80)))
+            .andExpect(status().isOk());
+
+        // expected
+        mockMvc.perform(get("/posts/1")
+                .with(remoteAddr("10.0.0.3")))
+            .andExpect(status().isTooManyRequests());
+
+        // id 2 개는 비용 1 이므로 버킷(5) 안에서 여러 번 보낼 수 있다
+        for (int i = 0; i < 4; i++) {
+            mockMvc.perform(post("/posts/batch-get")
+                    .with(remoteAddr("10.0.0.4"))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(batchGet(2)))
+                .andExpect(status().isOk());
+        }
+    }
+
+    private String batchGet(int size) throws Exception {
+        List<Long> ids = LongStream.rangeClosed(1, size).boxed().toList();
+        return objectMapper.writeValueAsString(PostBatchGet.builder().ids(ids).build());
+    }
+
+    private static RequestPostProcessor remoteAddr(String address) {
+        return request -> {
+            request.setRemoteAddr(address);
+            return request;
+        };
+    }
+}
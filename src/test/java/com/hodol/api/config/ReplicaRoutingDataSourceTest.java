@@ -0,0 +1,78 @@
+package com.hodol.api.config;
+
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * H2 두 개(primary / replica)로 라우팅을 확인한다. 각 DB 의 node 테이블에는 자기 이름이 들어 있다
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    void setUp() {
+        DataSource dataSource = new LazyConnectionDataSourceProxy(
+            new ReplicaRoutingDataSource(database("primary"), database("replica")));
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReplicaRoutingDataSource.unpin();
+    }
+
+    @Test
+    @DisplayName("읽기 전용 트랜잭션은 replica 에서 읽는다")
+    void test1() {
+        Assertions.assertEquals("replica", readOnly.execute(status -> currentNode()));
+    }
+
+    @Test
+    @DisplayName("쓰기 트랜잭션과 트랜잭션 밖의 쿼리는 primary 로 간다")
+    void test2() {
+        Assertions.assertEquals("primary", readWrite.execute(status -> currentNode()));
+        Assertions.assertEquals("primary", currentNode());
+    }
+
+    @Test
+    @DisplayName("자기 쓰기 직후(pin)에는 읽기 전용 트랜잭션도 primary 에서 읽는다")
+    void test3() {
+        ReplicaRoutingDataSource.pinToPrimary();
+        Assertions.assertEquals("primary", readOnly.execute(status -> currentNode()));
+
+        ReplicaRoutingDataSource.unpin();
+        Assertions.assertEquals("replica", readOnly.execute(status -> currentNode()));
+    }
+
+    private String currentNode() {
+        return jdbcTemplate.queryForObject("select name from node", String.class);
+    }
+
+    private static DataSource database(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+            "jdbc:h2:mem:routing-" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table if not exists node (name varchar(20))");
+        jdbcTemplate.update("delete from node");
+        jdbcTemplate.update("insert into node (name) values (?)", name);
+        return dataSource;
+    }
+}
@@ -0,0 +1,103 @@
+package com.hodol.api.config;
+
+import com.hodol.api.domain.CompressedTextConverter;
+import com.hodol.api.domain.Post;
+import com.hodol.api.repository.PostRepository;
+import com.hodol.api.request.PostEdit;
+import com.hodol.api.service.PostService;
+import jakarta.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * replica 라우팅 + 2차 캐시: 복제가 늦은 replica 에서 읽은 값은 2차 캐시에 들어가지 않아야 한다
+ * <p>
+ * replica 는 복제를 흉내 내기 위해 테스트가 직접 행을 넣는 별도 H2 다 (수정은 반영하지 않는다 = 복제 지연)
+ */
+// 스냅샷은 시작할 때 replica 에서 목록을 읽는데, replica 테이블은 각 테스트가 만든다
+@SpringBootTest(properties = {
+    "hodol.post.snapshot.enabled=false",
+    "spring.datasource.url=jdbc:h2:mem:l2-primary",
+    "hodol.datasource.replica.url=jdbc:h2:mem:l2-replica;DB_CLOSE_DELAY=-1",
+    "hodol.datasource.replica.username=sa"
+})
+class ReplicaSecondLevelCacheTest {
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    void setUp() {
+        replica = new JdbcTemplate(replicaDataSource);
+        replica.execute("create table if not exists post (id bigint primary key, title varchar(255), content blob, "
+            + "excerpt varchar(" + Post.EXCERPT_LENGTH + "), version bigint, view_count bigint not null)");
+        replica.update("delete from post");
+
+        postRepository.deleteAll();
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReplicaRoutingDataSource.unpin();
+    }
+
+    @Test
+    @DisplayName("수정 직후 replica 에서 읽은 이전 값은 2차 캐시에 넣지 않고, primary 에서 읽은 값만 넣는다")
+    void test1() {
+        // given
+        Post post = postRepository.save(Post.builder()
+            .title("foo")
+            .content("bar")
+            .build());
+        replicate(post);
+
+        // 벌크 update 는 primary 에만 반영되고 2차 캐시의 글을 지운다
+        postService.edit(post.getId(), PostEdit.builder()
+            .title("FOO")
+            .content("BAR")
+            .build());
+
+        // when: 읽기 전용 조회는 아직 복제되지 않은 replica 에서 이전 값을 읽는다
+        Post stale = postRepository.findById(post.getId()).orElseThrow();
+
+        // then
+        Assertions.assertEquals("foo", stale.getTitle());
+        Assertions.assertFalse(entityManagerFactory.getCache().contains(Post.class, post.getId()));
+
+        // 쓰기 직후(primary 고정)의 조회는 DB 의 수정된 값을 읽고, 그 값으로 캐시를 채운다
+        ReplicaRoutingDataSource.pinToPrimary();
+        Assertions.assertEquals("FOO", postRepository.findById(post.getId()).orElseThrow().getTitle());
+        Assertions.assertTrue(entityManagerFactory.getCache().contains(Post.class, post.getId()));
+
+        // 이후 replica 로 가는 조회도 캐시에 있는 primary 값을 받는다
+        ReplicaRoutingDataSource.unpin();
+        Assertions.assertEquals("FOO", postRepository.findById(post.getId()).orElseThrow().getTitle());
+    }
+
+    private void replicate(Post post) {
+        replica.update("insert into post (id, title, content, excerpt, version, view_count) values (?, ?, ?, ?, ?, ?)",
+            post.getId(), post.getTitle(), CompressedTextConverter.compress(post.getContent()), post.getExcerpt(),
+            post.getVersion(), post.getViewCount());
+    }
+}
@@ -1,21 +1,32 @@
 package com.hodol.api.controller;
 
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.hodol.api.domain.Post;
 import com.hodol.api.repository.PostRepository;
+import com.hodol.api.request.PostBatchGet;
 import com.hodol.api.request.PostCreate;
 import com.hodol.api.request.PostEdit;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -24,12 +35,15 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 //@WebMvcTest // 간단한 컨트롤러의 레이어 테스트에는 괜찮다
 @AutoConfigureMockMvc // MockMvc 테스트를 위해
-@SpringBootTest //웹의 전반적인 테스트를 위해
+// 리포지토리로 직접 글을 넣고 목록을 확인하므로 이벤트로만 갱신되는 스냅샷을 끈다 (스냅샷 목록은 PostListSnapshotTest)
+@SpringBootTest(properties = "hodol.post.snapshot.enabled=false") //웹의 전반적인 테스트를 위해
 class PostControllerTest {
 
     @Autowired
@@ -41,6 +55,9 @@ class PostControllerTest {
     @Autowired
     private PostRepository postRepository;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     // 테스트 메소드들이 실행 되기 전 수행되는 것
     @BeforeEach
     void clean() {
@@ -273,4 +290,412 @@ class PostControllerTest {
             .andDo(print());
 
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("GET 커서로 다음 페이지 조회")
+    void test12() throws Exception {
+        // given
+        List<Post> requestPosts = IntStream.range(0, 20)
+            .mapToObj(i -> Post.builder()
+                .title("foo" + i)
+                .content("bar" + i)
+                .build())
+            .toList();
+        postRepository.saveAll(requestPosts);
+
+        Long lastId = requestPosts.get(10).getId();
+
+        // expected
+        mockMvc.perform(get("/posts?size=10&lastId={lastId}", lastId)
+                .contentType(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()", Matchers.is(10)))
+            .andExpect(jsonPath("$.[0].title").value("foo9"))
+            .andExpect(header().string(PostController.NEXT_CURSOR_HEADER,
+                String.valueOf(requestPosts.get(0).getId())))
+            .andDo(print());
+    }
+
+    @Test
+    @DisplayName("GET 글 목록 요약 조회")
+    void test13() throws Exception {
+        // given
+        List<Post> requestPosts = IntStream.range(0, 20)
+            .mapToObj(i -> Post.builder()
+                .title("foo" + i)
+                .content("bar" + i)
+                .build())
+            .toList();
+        postRepository.saveAll(requestPosts);
+
+        // expected
+        mockMvc.perform(get("/posts/summaries?page=1&size=10")
+                .contentType(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()", Matchers.is(10)))
+            .andExpect(jsonPath("$.[0].title").value("foo19"))
+            .andExpect(jsonPath("$.[0].excerpt").value("bar19"))
+            .andExpect(jsonPath("$.[0].content").doesNotExist())
+            .andDo(print());
+    }
+
+    @Test
+    @DisplayName("POST /posts/bulk 요청시 db에 한번에 저장된다")
+    void test14() throws Exception {
+        // given
+        List<PostCreate> requests = IntStream.range(0, 30)
+            .mapToObj(i -> PostCreate.builder()
+                .title("foo" + i)
+                .content("bar" + i)
+                .build())
+            .toList();
+
+        // when
+        mockMvc.perform(post("/posts/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(requests))
+            )
+            .andExpect(status().isOk())
+            .andDo(print());
+
+        // then
+        Assertions.assertEquals(30L, postRepository.count());
+    }
+
+    @Test
+    @DisplayName("POST /posts/bulk 요청시 잘못된 항목은 순번과 함께 응답")
+    void test15() throws Exception {
+        // given
+        List<PostCreate> requests = List.of(
+            PostCreate.builder().title("foo").content("bar").build(),
+            PostCreate.builder().title("바보").content("bar").build());
+
+        // expected
+        mockMvc.perform(post("/posts/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(requests))
+            )
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.code").value("400"))
+            .andExpect(jsonPath("$.validation['[1].title']").value("제목에 바보를 포함할 수 없습니다."))
+            .andDo(print());
+
+        Assertions.assertEquals(0L, postRepository.count());
+    }
+
+    @Test
+    @DisplayName("GET /posts/export 요청시 모든 글을 한 줄씩 내려준다")
+    void test16() throws Exception {
+        // given
+        List<Post> requestPosts = IntStream.range(0, 1200)
+            .mapToObj(i -> Post.builder()
+                .title("foo" + i)
+                .content("bar" + i)
+                .build())
+            .toList();
+        postRepository.saveAll(requestPosts);
+
+        // when
+        MvcResult result = mockMvc.perform(get("/posts/export"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        // then
+        String body = mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+            .andReturn()
+            .getResponse()
+            .getContentAsString(StandardCharsets.UTF_8);
+
+        String[] lines = body.split("\n");
+        Assertions.assertEquals(1200, lines.length);
+        Assertions.assertEquals("foo1199", objectMapper.readTree(lines[0]).get("title").asText());
+        Assertions.assertEquals("foo0", objectMapper.readTree(lines[1199]).get("title").asText());
+    }
+
+    @Test
+    @DisplayName("실패 응답은 예외 종류별로 집계된다")
+    void test17() throws Exception {
+        // given
+        double before = meterRegistry.counter(ExceptionController.EXCEPTION_COUNTER,
+            "exception", "PostNotFound", "status", "404").count();
+
+        // when
+        mockMvc.perform(delete("/posts/{postId}", 1L)
+                .contentType(MediaType.APPLICATION_JSON))
+            .andExpect(status().isNotFound())
+            .andDo(print());
+
+        // then
+        double after = meterRegistry.counter(ExceptionController.EXCEPTION_COUNTER,
+            "exception", "PostNotFound", "status", "404").count();
+        Assertions.assertEquals(before + 1, after);
+    }
+
+    @Test
+    @DisplayName("GET 글 한개 조회 - ETag 가 같으면 304")
+    void test18() throws Exception {
+        // given
+        Post post = Post.builder()
+            .title("foo")
+            .content("bar")
+            .build();
+        postRepository.save(post);
+
+        MvcResult first = mockMvc.perform(get("/posts/{postId}", post.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"" + post.getId() + "-0\""))
+            .andReturn();
+        String eTag = first.getResponse().getHeader(HttpHeaders.ETAG);
+
+        // 강한 ETag 이므로 조회수가 올라도 같은 버전의 본문은 바이트까지 같아야 한다
+        MvcResult second = mockMvc.perform(get("/posts/{postId}", post.getId()))
+            .andExpect(header().string(HttpHeaders.ETAG, eTag))
+            .andExpect(header().string(PostController.VIEW_COUNT_HEADER, "2"))
+            .andReturn();
+        Assertions.assertArrayEquals(first.getResponse().getContentAsByteArray(),
+            second.getResponse().getContentAsByteArray());
+
+        // expected
+        mockMvc.perform(get("/posts/{postId}", post.getId())
+                .header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified())
+            .andExpect(content().string(""))
+            .andDo(print());
+    }
+
+    @Test
+    @DisplayName("PATCH 글 수정 - If-Match 버전이 다르면 412")
+    void test19() throws Exception {
+        // given
+        Post post = Post.builder()
+            .title("foo")
+            .content("bar")
+            .build();
+        postRepository.save(post);
+
+        PostEdit postEdit = PostEdit.builder()
+            .title("FOO")
+            .content("bar")
+            .build();
+
+        mockMvc.perform(patch("/posts/{postId}", post.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.IF_MATCH, "\"" + post.getId() + "-0\"")
+                .content(objectMapper.writeValueAsString(postEdit))
+            )
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"" + post.getId() + "-1\""))
+            .andExpect(jsonPath("$.version").value(1));
+
+        // expected
+        mockMvc.perform(patch("/posts/{postId}", post.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.IF_MATCH, "\"" + post.getId() + "-0\"")
+                .content(objectMapper.writeValueAsString(postEdit))
+            )
+            .andExpect(status().isPreconditionFailed())
+            .andExpect(jsonPath("$.code").value("412"))
+            .andDo(print());
+
+        mockMvc.perform(delete("/posts/{postId}", post.getId())
+                .header(HttpHeaders.IF_MATCH, "\"" + post.getId() + "-0\""))
+            .andExpect(status().isPreconditionFailed());
+
+        Assertions.assertEquals(1L, postRepository.count());
+    }
+
+    @Test
+    @DisplayName("gzip 을 받는 클라이언트에게는 미리 압축해 둔 단건 응답을 준다")
+    void test20() throws Exception {
+        // given
+        Post post = Post.builder()
+            .title("foo")
+            .content("bar".repeat(100))
+            .build();
+        postRepository.save(post);
+
+        // when
+        MvcResult result = mockMvc.perform(get("/posts/{postId}", post.getId())
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+            .andExpect(header().string(HttpHeaders.ETAG, "\"" + post.getId() + "-0-gz\""))
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+            .andExpect(header().string(PostController.VIEW_COUNT_HEADER, "1"))
+            .andReturn();
+
+        // then
+        byte[] gzip = result.getResponse().getContentAsByteArray();
+        byte[] json;
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip))) {
+            json = in.readAllBytes();
+        }
+        // gzip 멤버 하나에 문서 전체가 들어 있다 (마지막 4 바이트 ISIZE = 풀린 전체 길이)
+        Assertions.assertEquals(json.length, ByteBuffer.wrap(gzip, gzip.length - 4, 4).order(ByteOrder.LITTLE_ENDIAN).getInt());
+        JsonNode body = objectMapper.readTree(json);
+        Assertions.assertEquals(post.getId(), body.get("id").asLong());
+        Assertions.assertEquals("foo", body.get("title").asText());
+        Assertions.assertEquals("bar".repeat(100), body.get("content").asText());
+        Assertions.assertNull(body.get("viewCount"));
+
+        // q 가 0 이면 (0.0, 0.000 도) gzip 을 받지 않는다는 뜻이다
+        for (String refused : List.of("gzip;q=0", "gzip; q=0.0", "deflate, gzip;q=0.000")) {
+            mockMvc.perform(get("/posts/{postId}", post.getId())
+                    .header(HttpHeaders.ACCEPT_ENCODING, refused))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING));
+        }
+        mockMvc.perform(get("/posts/{postId}", post.getId())
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0.5"))
+            .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"));
+
+        // 같은 표현의 ETag 로 다시 요청하면 304
+        mockMvc.perform(get("/posts/{postId}", post.getId())
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"" + post.getId() + "-0-gz\""))
+            .andExpect(status().isNotModified());
+
+        // gzip 을 받지 않으면 일반 JSON
+        mockMvc.perform(get("/posts/{postId}", post.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+            .andExpect(jsonPath("$.title").value("foo"));
+    }
+
+    @Test
+    @DisplayName("글을 조회할 때마다 조회수가 오르고, 많이 본 글 순으로 조회할 수 있다")
+    void test21() throws Exception {
+        // given
+        List<Post> posts = postRepository.saveAll(IntStream.range(0, 3)
+            .mapToObj(i -> Post.builder()
+                .title("제목 " + i)
+                .content("내용 " + i)
+                .build())
+            .toList());
+
+        // when
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get("/posts/{postId}", posts.get(1).getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(PostController.VIEW_COUNT_HEADER, String.valueOf(i + 1)))
+                .andExpect(jsonPath("$.viewCount").doesNotExist());
+        }
+        mockMvc.perform(get("/posts/{postId}", posts.get(2).getId()))
+            .andExpect(header().string(PostController.VIEW_COUNT_HEADER, "1"));
+
+        // then
+        mockMvc.perform(get("/posts/most-viewed?size=2"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()", Matchers.is(2)))
+            .andExpect(jsonPath("$[0].id").value(posts.get(1).getId()))
+            .andExpect(jsonPath("$[0].viewCount").value(3))
+            .andExpect(jsonPath("$[1].id").value(posts.get(2).getId()))
+            .andExpect(jsonPath("$[1].viewCount").value(1))
+            .andDo(print());
+    }
+
+    @Test
+    @DisplayName("POST /posts/batch-get 여러 글을 요청한 순서대로 한 번에 조회하고, 없는 글은 missing 으로 알려준다")
+    void test22() throws Exception {
+        // given
+        List<Post> posts = postRepository.saveAll(IntStream.range(0, 3)
+            .mapToObj(i -> Post.builder()
+                .title("제목 " + i)
+                .content("내용 " + i)
+                .build())
+            .toList());
+        Long missingId = posts.get(2).getId() + 1000;
+
+        PostBatchGet request = PostBatchGet.builder()
+            .ids(List.of(posts.get(2).getId(), missingId, posts.get(0).getId(), posts.get(2).getId()))
+            .build();
+
+        // expected
+        mockMvc.perform(post("/posts/batch-get")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.posts.length()", Matchers.is(2)))
+            .andExpect(jsonPath("$.posts[0].id").value(posts.get(2).getId()))
+            .andExpect(jsonPath("$.posts[0].title").value("제목 2"))
+            .andExpect(jsonPath("$.posts[1].id").value(posts.get(0).getId()))
+            .andExpect(jsonPath("$.missing.length()", Matchers.is(1)))
+            .andExpect(jsonPath("$.missing[0]").value(missingId))
+            .andDo(print());
+    }
+
+    @Test
+    @DisplayName("POST /posts/batch-get 조회할 id 가 없으면 400")
+    void test23() throws Exception {
+        mockMvc.perform(post("/posts/batch-get")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"ids\": []}"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.validation.ids").value("조회할 글 id 를 입력해주세요."))
+            .andDo(print());
+    }
+
+    @Test
+    @DisplayName("POST /posts/batch-get 항목은 같은 글의 단건 조회와 같다 (제목 10 자)")
+    void test24() throws Exception {
+        // given
+        Post post = postRepository.save(Post.builder()
+            .title("호돌맨 반포자이 입주기 1편")
+            .content("반포자이")
+            .build());
+
+        MvcResult single = mockMvc.perform(get("/posts/{postId}", post.getId()))
+            .andExpect(status().isOk())
+            .andReturn();
+        MvcResult batch = mockMvc.perform(post("/posts/batch-get")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(PostBatchGet.builder().ids(List.of(post.getId())).build())))
+            .andExpect(status().isOk())
+            .andReturn();
+
+        // then
+        JsonNode expected = objectMapper.readTree(single.getResponse().getContentAsString(StandardCharsets.UTF_8));
+        JsonNode actual = objectMapper.readTree(batch.getResponse().getContentAsString(StandardCharsets.UTF_8))
+            .get("posts").get(0);
+
+        Assertions.assertEquals("호돌맨 반포자이 입", expected.get("title").asText());
+        for (String field : List.of("id", "title", "content", "version")) {
+            Assertions.assertEquals(expected.get(field), actual.get(field), field);
+        }
+    }
+
+    @Test
+    @DisplayName("GET 글 목록 - 조회수가 바뀌면 약한 ETag 도 바뀌어서 304 로 옛 조회수를 돌려주지 않는다")
+    void test25() throws Exception {
+        // given
+        Post post = postRepository.save(Post.builder()
+            .title("foo")
+            .content("bar")
+            .build());
+
+        MvcResult first = mockMvc.perform(get("/posts?page=1&size=10"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].viewCount").value(0))
+            .andReturn();
+        String eTag = first.getResponse().getHeader(HttpHeaders.ETAG);
+        Assertions.assertTrue(eTag.startsWith("W/\"l-"));
+
+        mockMvc.perform(get("/posts?page=1&size=10")
+                .header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified());
+
+        // when
+        mockMvc.perform(get("/posts/{postId}", post.getId()))
+            .andExpect(status().isOk());
+
+        // then
+        mockMvc.perform(get("/posts?page=1&size=10")
+                .header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, Matchers.not(eTag)))
+            .andExpect(jsonPath("$[0].viewCount").value(1))
+            .andDo(print());
+    }
+}
@@ -0,0 +1,117 @@
+package com.hodol.api.ingest;
+
+import com.hodol.api.ingest.PostIngestLog.Entry;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class PostIngestLogTest {
+
+    private static final int SEGMENT_SIZE = 4096;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("sync 된 레코드만 읽을 수 있다")
+    void test1() throws InterruptedException {
+        // given
+        PostIngestLog log = PostIngestLog.open(directory, SEGMENT_SIZE, 0);
+        long end = log.append(1L, 100L, "제목", "내용");
+
+        // expected
+        Assertions.assertEquals(List.of(), log.read(0, 10));
+        Assertions.assertFalse(log.awaitDurable(end, 10));
+
+        log.sync();
+        Assertions.assertTrue(log.awaitDurable(end, 10));
+
+        List<Entry> entries = log.read(0, 10);
+        Assertions.assertEquals(1, entries.size());
+        Assertions.assertEquals(1L, entries.get(0).id());
+        Assertions.assertEquals(100L, entries.get(0).appendedAt());
+        Assertions.assertEquals("제목", entries.get(0).title());
+        Assertions.assertEquals("내용", entries.get(0).content());
+        Assertions.assertEquals(end, entries.get(0).nextPosition());
+    }
+
+    @Test
+    @DisplayName("세그먼트를 넘어가며 쓰고, 다시 열면 체크포인트부터 이어서 읽는다")
+    void test2() {
+        // given
+        PostIngestLog log = PostIngestLog.open(directory, SEGMENT_SIZE, 0);
+        IntStream.rangeClosed(1, 100).forEach(i -> log.append(i, i, "제목 " + i, "내용 ".repeat(10) + i));
+        log.close();
+
+        List<Entry> all = PostIngestLog.open(directory, SEGMENT_SIZE, 0).read(0, 1000);
+        long checkpoint = all.get(49).nextPosition();
+
+        // when
+        PostIngestLog reopened = PostIngestLog.open(directory, SEGMENT_SIZE, checkpoint);
+        List<Entry> remaining = reopened.read(checkpoint, 1000);
+
+        // then
+        Assertions.assertEquals(100, all.size());
+        Assertions.assertTrue(all.get(99).position() >= SEGMENT_SIZE);
+        Assertions.assertEquals(50, remaining.size());
+        Assertions.assertEquals(51L, remaining.get(0).id());
+        Assertions.assertEquals(100L, remaining.get(49).id());
+    }
+
+    @Test
+    @DisplayName("마지막 레코드가 깨져 있으면 그 앞까지만 로그로 보고, 그 자리에 이어 쓴다")
+    void test3() throws IOException {
+        // given
+        PostIngestLog log = PostIngestLog.open(directory, SEGMENT_SIZE, 0);
+        log.append(1L, 1L, "제목 1", "내용 1");
+        long end = log.append(2L, 2L, "제목 2", "내용 2");
+        log.close();
+
+        // 두 번째 레코드의 마지막 바이트를 망가뜨린다 (쓰다가 죽은 경우)
+        Path segment;
+        try (var files = Files.list(directory)) {
+            segment = files.findFirst().orElseThrow();
+        }
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            file.seek(end - 1);
+            int last = file.read();
+            file.seek(end - 1);
+            file.write(last ^ 0xFF);
+        }
+
+        // when
+        PostIngestLog reopened = PostIngestLog.open(directory, SEGMENT_SIZE, 0);
+        reopened.append(3L, 3L, "제목 3", "내용 3");
+        reopened.sync();
+
+        // then
+        List<Long> ids = reopened.read(0, 10).stream().map(Entry::id).toList();
+        Assertions.assertEquals(List.of(1L, 3L), ids);
+    }
+
+    @Test
+    @DisplayName("DB 에 반영이 끝난 세그먼트 파일은 지운다")
+    void test4() throws IOException {
+        // given
+        PostIngestLog log = PostIngestLog.open(directory, SEGMENT_SIZE, 0);
+        IntStream.rangeClosed(1, 100).forEach(i -> log.append(i, i, "제목 " + i, "내용 ".repeat(10) + i));
+        log.sync();
+        List<Entry> entries = log.read(0, 1000);
+
+        // when
+        log.deleteBefore(entries.get(99).position());
+
+        // then
+        try (var files = Files.list(directory)) {
+            Assertions.assertEquals(1, files.count());
+        }
+        Assertions.assertEquals(100L, log.read(entries.get(99).position(), 10).get(0).id());
+    }
+}
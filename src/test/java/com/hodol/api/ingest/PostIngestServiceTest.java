@@ -0,0 +1,161 @@
+package com.hodol.api.ingest;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hodol.api.domain.Post;
+import com.hodol.api.repository.PostRepository;
+import com.hodol.api.request.PostCreate;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.BooleanSupplier;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+@AutoConfigureMockMvc
+@SpringBootTest(properties = "hodol.post.ingest.enabled=true")
+class PostIngestServiceTest {
+
+    private static Path directory;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private PostIngestService postIngestService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // 실행마다 새 로그 디렉터리를 쓴다
+    @DynamicPropertySource
+    static void ingest(DynamicPropertyRegistry registry) throws IOException {
+        directory = Files.createTempDirectory("hodol-ingest");
+        registry.add("hodol.post.ingest.directory", () -> directory.toAbsolutePath().toString());
+    }
+
+    @BeforeEach
+    void clean() {
+        postRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("POST /posts 는 로그에 쓰고 id 와 함께 202 로 응답하고, 글은 곧 DB 에 들어간다")
+    void test1() throws Exception {
+        // given
+        PostCreate request = PostCreate.builder()
+            .title("제목입니다.")
+            .content("내용입니다.")
+            .build();
+
+        // when
+        String body = mockMvc.perform(post("/posts")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+            .andExpect(status().isAccepted())
+            .andExpect(header().exists("Location"))
+            .andExpect(jsonPath("$.id").isNumber())
+            .andReturn().getResponse().getContentAsString();
+        Long postId = objectMapper.readTree(body).get("id").asLong();
+
+        // then
+        await(() -> postRepository.existsById(postId));
+        Post post = postRepository.findById(postId).orElseThrow();
+        Assertions.assertEquals("제목입니다.", post.getTitle());
+        Assertions.assertEquals("내용입니다.", post.getContent());
+        Assertions.assertEquals(0L, post.getVersion());
+
+        mockMvc.perform(get("/posts/{postId}", postId))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.title").value("제목입니다."));
+
+        await(() -> meterRegistry.get("hodol.post.ingest.queue.depth").gauge().value() == 0);
+        Assertions.assertTrue(meterRegistry.get("hodol.post.ingest.commit.lag").timer().count() >= 1);
+    }
+
+    @Test
+    @DisplayName("검증에 실패한 요청은 로그에 쓰지 않는다")
+    void test2() throws Exception {
+        // given
+        PostCreate request = PostCreate.builder()
+            .title("바보입니다.")
+            .content("내용입니다.")
+            .build();
+
+        // expected
+        mockMvc.perform(post("/posts")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+            .andExpect(status().isBadRequest());
+        Assertions.assertEquals(0, meterRegistry.get("hodol.post.ingest.queue.depth").gauge().value());
+    }
+
+    @Test
+    @DisplayName("기동하면 DB 에 넣지 못한 로그 레코드를 다시 넣고, 같은 id 는 한 번만 넣는다")
+    void test3() {
+        // given
+        postIngestService.stop();
+
+        long checkpoint = Files.exists(directory.resolve("checkpoint"))
+            ? readCheckpoint()
+            : 0;
+        PostIngestLog log = PostIngestLog.open(directory, 64 * 1024 * 1024, checkpoint);
+        log.append(1_000_000L, System.currentTimeMillis(), "못 넣은 글", "다시 넣어야 한다");
+        log.append(1_000_000L, System.currentTimeMillis(), "못 넣은 글", "다시 넣어야 한다");
+        log.close();
+
+        // when
+        postIngestService.start();
+
+        // then
+        await(() -> postRepository.existsById(1_000_000L));
+        await(() -> meterRegistry.get("hodol.post.ingest.queue.depth").gauge().value() == 0);
+        Assertions.assertEquals(1L, postRepository.count());
+        Assertions.assertEquals("못 넣은 글", postRepository.findById(1_000_000L).orElseThrow().getTitle());
+    }
+
+    private static long readCheckpoint() {
+        try {
+            return ByteBuffer.wrap(Files.readAllBytes(directory.resolve("checkpoint"))).getLong();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                Assertions.fail("시간 안에 반영되지 않았다");
+            }
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
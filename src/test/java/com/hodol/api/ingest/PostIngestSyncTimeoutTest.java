@@ -0,0 +1,85 @@
+package com.hodol.api.ingest;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hodol.api.repository.PostRepository;
+import com.hodol.api.request.PostCreate;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.nio.file.Files;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * fsync 를 기다리는 시간(1ms)보다 sync 간격(2초)이 훨씬 길어서 요청은 거의 항상 fsync 를 기다리지 못한다
+ */
+@AutoConfigureMockMvc
+@SpringBootTest(properties = {
+    "hodol.post.ingest.enabled=true",
+    "hodol.post.ingest.sync-interval=PT2S",
+    "hodol.post.ingest.sync-timeout=PT0.001S"
+})
+class PostIngestSyncTimeoutTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @DynamicPropertySource
+    static void ingest(DynamicPropertyRegistry registry) throws IOException {
+        String directory = Files.createTempDirectory("hodol-ingest-timeout").toAbsolutePath().toString();
+        registry.add("hodol.post.ingest.directory", () -> directory);
+    }
+
+    @Test
+    @DisplayName("fsync 를 시간 안에 기다리지 못해도 로그에 쓴 글은 503 이 아니라 202 와 id 를 받고, 그 id 로 한 번만 들어간다")
+    void test1() throws Exception {
+        // given
+        postRepository.deleteAll();
+        PostCreate request = PostCreate.builder()
+            .title("제목입니다.")
+            .content("내용입니다.")
+            .build();
+
+        // when
+        String body = mockMvc.perform(post("/posts")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+            .andExpect(status().isAccepted())
+            .andExpect(jsonPath("$.id").isNumber())
+            .andReturn().getResponse().getContentAsString();
+        Long postId = objectMapper.readTree(body).get("id").asLong();
+
+        // then
+        Assertions.assertEquals(1, meterRegistry.get("hodol.post.ingest.sync.timeout").counter().count());
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!postRepository.existsById(postId)) {
+            if (System.currentTimeMillis() > deadline) {
+                Assertions.fail("시간 안에 반영되지 않았다");
+            }
+            Thread.sleep(50);
+        }
+        Assertions.assertEquals(1L, postRepository.count());
+        Assertions.assertEquals("제목입니다.", postRepository.findById(postId).orElseThrow().getTitle());
+    }
+}
@@ -0,0 +1,49 @@
+package com.hodol.api.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class AdaptiveConcurrencyLimitTest {
+
+    private static final long THRESHOLD = TimeUnit.MILLISECONDS.toNanos(100);
+
+    @Test
+    @DisplayName("한도만큼 처리 중이면 더 받지 않는다")
+    void test1() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 1, 10, THRESHOLD);
+
+        Assertions.assertTrue(limit.tryAcquire());
+        Assertions.assertTrue(limit.tryAcquire());
+        Assertions.assertFalse(limit.tryAcquire());
+
+        limit.release();
+        Assertions.assertTrue(limit.tryAcquire());
+    }
+
+    @Test
+    @DisplayName("느린 응답에는 한도를 곱으로 줄이고, 빠른 응답에는 조금씩 늘린다")
+    void test2() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 2, 20, THRESHOLD);
+
+        // 느린 응답
+        for (int i = 0; i < 10; i++) {
+            limit.tryAcquire();
+            limit.release(THRESHOLD * 2, false);
+        }
+        double lowered = limit.getLimit();
+        Assertions.assertTrue(lowered < 10 * Math.pow(0.9, 9));
+        Assertions.assertTrue(lowered >= 2);
+
+        // 한도를 가득 쓰는 빠른 응답
+        for (int i = 0; i < 100; i++) {
+            while (limit.tryAcquire()) {
+                // 한도까지 채운다
+            }
+            limit.release(THRESHOLD / 2, false);
+        }
+        Assertions.assertTrue(limit.getLimit() > lowered);
+        Assertions.assertTrue(limit.getLimit() <= 20);
+    }
+}
@@ -0,0 +1,68 @@
+package com.hodol.api.search;
+
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class PostSearchIndexTest {
+
+    private final PostSearchIndex index = new PostSearchIndex(null);
+
+    @Test
+    @DisplayName("한글은 2-gram, 영문은 소문자 단어로 자른다")
+    void test1() {
+        // when
+        List<String> tokens = PostTokenizer.tokenize("호돌맨의 Spring 강의");
+
+        // then
+        Assertions.assertEquals(List.of("호돌", "돌맨", "맨의", "spring", "강의"), tokens);
+    }
+
+    @Test
+    @DisplayName("검색어 토큰을 모두 포함한 글만 찾고, 제목에 있는 글을 먼저 보여준다")
+    void test2() {
+        // given
+        index.index(1L, "자바 입문", "스프링 부트로 게시판 만들기");
+        index.index(2L, "스프링 부트 시작하기", "자바로 웹 개발");
+        index.index(3L, "코틀린", "안드로이드 개발");
+
+        // when
+        List<Long> ids = index.search("스프링 부트", 0, 10);
+
+        // then
+        Assertions.assertEquals(List.of(2L, 1L), ids);
+    }
+
+    @Test
+    @DisplayName("수정/삭제된 글은 이전 내용으로 검색되지 않는다")
+    void test3() {
+        // given
+        index.index(1L, "foo", "bar");
+        index.index(2L, "foo", "baz");
+
+        // when
+        index.index(1L, "qux", "bar");
+        index.remove(2L);
+
+        // then
+        Assertions.assertEquals(List.of(), index.search("foo", 0, 10));
+        Assertions.assertEquals(List.of(1L), index.search("qux", 0, 10));
+        Assertions.assertEquals(1, index.size());
+    }
+
+    @Test
+    @DisplayName("검색 결과 페이징")
+    void test4() {
+        // given
+        for (long id = 1; id <= 20; id++) {
+            index.index(id, "제목 " + id, "내용");
+        }
+
+        // when
+        List<Long> ids = index.search("내용", 5, 5);
+
+        // then
+        Assertions.assertEquals(List.of(15L, 14L, 13L, 12L, 11L), ids);
+    }
+}
@@ -0,0 +1,296 @@
+package com.hodol.api.service;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+import com.hodol.api.config.PostProperties;
+import com.hodol.api.controller.PostController;
+import com.hodol.api.event.PostChangedEvent;
+import com.hodol.api.exception.ServiceUnavailable;
+import com.hodol.api.repository.PostRepository;
+import com.hodol.api.request.PostCreate;
+import com.hodol.api.request.PostEdit;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@AutoConfigureMockMvc
+@SpringBootTest(properties = "hodol.post.stream.buffer-size=4")
+class PostEventStreamTest {
+
+    // 이벤트 id 는 "{기동 시각}-{순번}"
+    private static final Pattern EVENT_ID = Pattern.compile("id:(\\d+)-(\\d+)\\nevent:created");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @BeforeEach
+    void clean() {
+        postRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("구독하면 이후의 작성/수정/삭제 이벤트를 SSE 로 받는다")
+    void test1() throws Exception {
+        // given
+        MvcResult stream = subscribe(get("/posts/stream"));
+
+        // when
+        postService.write(PostCreate.builder()
+            .title("호돌맨")
+            .content("반포자이")
+            .build());
+        Long postId = postRepository.findAll().get(0).getId();
+        postService.edit(postId, PostEdit.builder()
+            .title("호돌걸")
+            .content("반포자이")
+            .build());
+        postService.delete(postId);
+
+        // then
+        String content = await(stream, body -> body.contains("event:deleted"));
+        Assertions.assertTrue(content.contains("event:created\ndata:{\"id\":" + postId + ",\"type\":\"created\",\"title\":\"호돌맨\""));
+        Assertions.assertTrue(content.contains("event:edited\ndata:{\"id\":" + postId + ",\"type\":\"edited\",\"title\":\"호돌걸\""));
+        Assertions.assertTrue(content.indexOf("event:created") < content.indexOf("event:edited"));
+        Assertions.assertFalse(content.contains("반포자이"));
+    }
+
+    @Test
+    @DisplayName("Last-Event-ID 로 다시 연결하면 놓친 이벤트부터 이어서 받는다")
+    void test2() throws Exception {
+        // given
+        MvcResult first = subscribe(get("/posts/stream"));
+        write(2);
+        String received = await(first, body -> EVENT_ID.matcher(body).results().count() == 2);
+
+        Matcher matcher = EVENT_ID.matcher(received);
+        Assertions.assertTrue(matcher.find());
+        String epoch = matcher.group(1);
+        long firstId = Long.parseLong(matcher.group(2));
+
+        // when
+        MvcResult resumed = subscribe(get("/posts/stream")
+            .header(PostController.LAST_EVENT_ID_HEADER, epoch + "-" + firstId));
+
+        // then
+        String content = await(resumed, body -> body.contains("id:" + epoch + "-" + (firstId + 1) + "\n"));
+        Assertions.assertFalse(content.contains("id:" + epoch + "-" + firstId + "\n"));
+    }
+
+    @Test
+    @DisplayName("이어 받을 이벤트가 버퍼에서 밀려났으면 reset 을 보내고 최신 위치부터 보낸다")
+    void test3() throws Exception {
+        // given: 버퍼(4)보다 많은 이벤트
+        write(5);
+
+        // when
+        MvcResult stream = subscribe(get("/posts/stream")
+            .header(PostController.LAST_EVENT_ID_HEADER, 0));
+        await(stream, body -> body.contains("event:" + PostEventStream.RESET));
+        write(1);
+
+        // then
+        String content = await(stream, body -> body.contains("event:created"));
+        Assertions.assertTrue(content.startsWith("id:"));
+        Assertions.assertTrue(content.contains("event:" + PostEventStream.RESET));
+        Assertions.assertEquals(1, EVENT_ID.matcher(content).results().count());
+    }
+
+    @Test
+    @DisplayName("다시 뜨기 전에 받은 id 로 연결하면 순번이 범위 안이어도 이어 받지 않고 reset 을 받는다")
+    void test4() throws Exception {
+        // given
+        MvcResult first = subscribe(get("/posts/stream"));
+        write(3);
+        Matcher matcher = EVENT_ID.matcher(await(first, body -> EVENT_ID.matcher(body).results().count() == 3));
+        Assertions.assertTrue(matcher.find());
+        long previousEpoch = Long.parseLong(matcher.group(1)) - 1;
+
+        // when
+        MvcResult stream = subscribe(get("/posts/stream")
+            .header(PostController.LAST_EVENT_ID_HEADER, previousEpoch + "-1"));
+
+        // then
+        String content = await(stream, body -> body.contains("event:" + PostEventStream.RESET));
+        Assertions.assertEquals(0, EVENT_ID.matcher(content).results().count());
+    }
+
+    @Test
+    @DisplayName("읽지 않는 구독자는 쓰기 타임아웃으로 끊기고, 다른 구독자는 계속 받는다")
+    void test5() throws Exception {
+        // given: 쓰기 스레드 둘 (하나는 막힌 쓰기에 잡힌다)
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        PostEventStream stream = stream(2, Duration.ofMillis(200), meterRegistry);
+
+        CountDownLatch unblock = new CountDownLatch(1);
+        AtomicInteger received = new AtomicInteger();
+        stream.subscribe(null, stuck(unblock));
+        stream.subscribe(null, counting(received));
+
+        // when
+        for (long i = 1; i <= 3; i++) {
+            stream.on(PostChangedEvent.deleted(i));
+        }
+
+        // then
+        awaitUntil(() -> received.get() == 3);
+        awaitUntil(() -> meterRegistry.get("hodol.post.stream.dropped").tag("reason", "timeout")
+            .counter().count() == 1);
+        Assertions.assertEquals(1, stream.size());
+        Assertions.assertEquals(1, meterRegistry.get("hodol.post.stream.stalled").gauge().value());
+
+        // 막혔던 쓰기가 풀리면 끊은 구독자도 정리된다
+        unblock.countDown();
+        awaitUntil(() -> meterRegistry.get("hodol.post.stream.stalled").gauge().value() == 0);
+        stream.close();
+    }
+
+    @Test
+    @DisplayName("읽지 않는 구독자의 큐가 넘치면 끊고, 다른 구독자는 기다리지 않고 받는다")
+    void test6() throws Exception {
+        // given: 쓰기 타임아웃은 길게, 큐는 4
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        PostEventStream stream = stream(2, Duration.ofSeconds(30), meterRegistry);
+
+        CountDownLatch unblock = new CountDownLatch(1);
+        AtomicInteger received = new AtomicInteger();
+        stream.subscribe(null, stuck(unblock));
+        stream.subscribe(null, counting(received));
+
+        // when: 받는 구독자는 매번 따라잡는다
+        for (int i = 1; i <= 6; i++) {
+            stream.on(PostChangedEvent.deleted((long) i));
+            int sent = i;
+            awaitUntil(() -> received.get() == sent);
+        }
+
+        // then
+        Assertions.assertEquals(1, stream.size());
+        Assertions.assertEquals(1, meterRegistry.get("hodol.post.stream.dropped").tag("reason", "overflow")
+            .counter().count());
+
+        unblock.countDown();
+        stream.close();
+    }
+
+    @Test
+    @DisplayName("쓰기 스레드가 모두 막힌 쓰기에 잡혀 있으면 새 구독은 503 이고, 쓰기가 풀리면 다시 받는다")
+    void test7() throws Exception {
+        // given: 쓰기 스레드 하나가 읽지 않는 구독자에게 잡혀 있다
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        PostEventStream stream = stream(1, Duration.ofMillis(100), meterRegistry);
+
+        CountDownLatch unblock = new CountDownLatch(1);
+        stream.subscribe(null, stuck(unblock));
+        stream.on(PostChangedEvent.deleted(1L));
+        awaitUntil(() -> meterRegistry.get("hodol.post.stream.stalled").gauge().value() == 1);
+
+        // expected
+        Assertions.assertThrows(ServiceUnavailable.class, () -> stream.subscribe(null, new SseEmitter()));
+
+        unblock.countDown();
+        awaitUntil(() -> meterRegistry.get("hodol.post.stream.stalled").gauge().value() == 0);
+        stream.subscribe(null, new SseEmitter());
+        Assertions.assertEquals(1, stream.size());
+        stream.close();
+    }
+
+    private static PostEventStream stream(int writerThreads, Duration writeTimeout, MeterRegistry meterRegistry) {
+        PostProperties properties = new PostProperties();
+        properties.getStream().setBufferSize(16);
+        properties.getStream().setQueueSize(4);
+        properties.getStream().setWriterThreads(writerThreads);
+        properties.getStream().setWriteTimeout(writeTimeout);
+        return new PostEventStream(properties, meterRegistry);
+    }
+
+    // 읽지 않는 클라이언트: 소켓 버퍼가 차서 쓰기가 돌아오지 않는다
+    private static SseEmitter stuck(CountDownLatch unblock) {
+        return new SseEmitter() {
+            @Override
+            public void send(SseEventBuilder builder) {
+                try {
+                    unblock.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+    }
+
+    private static SseEmitter counting(AtomicInteger received) {
+        return new SseEmitter() {
+            @Override
+            public void send(SseEventBuilder builder) {
+                received.incrementAndGet();
+            }
+        };
+    }
+
+    private MvcResult subscribe(MockHttpServletRequestBuilder builder) throws Exception {
+        return mockMvc.perform(builder.accept(MediaType.TEXT_EVENT_STREAM))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+    }
+
+    private void write(int count) {
+        List<PostCreate> posts = IntStream.range(0, count)
+            .mapToObj(i -> PostCreate.builder()
+                .title("제목 " + i)
+                .content("내용 " + i)
+                .build())
+            .toList();
+        posts.forEach(postService::write);
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                Assertions.fail("조건을 만족하지 못했다");
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    private static String await(MvcResult result, Predicate<String> condition) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (true) {
+            String content = result.getResponse().getContentAsString(StandardCharsets.UTF_8);
+            if (condition.test(content)) {
+                return content;
+            }
+            if (System.currentTimeMillis() > deadline) {
+                Assertions.fail("이벤트를 받지 못했다: " + content);
+            }
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.hodol.api.service;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hodol.api.config.CacheConfig;
+import com.hodol.api.domain.Post;
+import com.hodol.api.repository.PostRepository;
+import com.hodol.api.request.PostCreate;
+import com.hodol.api.request.PostEdit;
+import com.hodol.api.request.PostSearch;
+import com.hodol.api.response.PostResponse;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+@AutoConfigureMockMvc
+@SpringBootTest(properties = {"hodol.post.snapshot.enabled=true", "hodol.post.snapshot.size=20"})
+class PostListSnapshotTest {
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private PostListSnapshot postListSnapshot;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void clean() {
+        postRepository.deleteAll();
+        cacheManager.getCache(CacheConfig.POST).clear();
+        postListSnapshot.reload();
+    }
+
+    @Test
+    @DisplayName("작성/수정/삭제가 스냅샷에 반영되고, 앞쪽 페이지는 쿼리 없이 응답한다")
+    void test1() {
+        // given
+        IntStream.range(0, 5).forEach(i -> postService.write(PostCreate.builder()
+            .title("제목 " + i)
+            .content("내용 " + i)
+            .build()));
+        List<PostResponse> written = postService.getList(PostSearch.builder().size(10).build());
+
+        postService.edit(written.get(1).getId(), PostEdit.builder()
+            .title("수정된 제목")
+            .content("수정된 내용")
+            .build());
+        postService.delete(written.get(0).getId());
+
+        // when
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long queries = statistics.getQueryExecutionCount();
+        List<PostResponse> posts = postService.getList(PostSearch.builder().size(10).build());
+
+        // then
+        Assertions.assertEquals(queries, statistics.getQueryExecutionCount());
+        Assertions.assertEquals(4, posts.size());
+        Assertions.assertEquals("수정된 제목", posts.get(0).getTitle());
+        Assertions.assertEquals(1L, posts.get(0).getVersion());
+        Assertions.assertEquals("제목 2", posts.get(1).getTitle());
+    }
+
+    @Test
+    @DisplayName("스냅샷보다 깊은 페이지는 DB 에서 읽는다 (offset / 커서 모두)")
+    void test2() {
+        // given
+        postService.writeAll(IntStream.range(0, 30)
+            .mapToObj(i -> PostCreate.builder()
+                .title("제목 " + i)
+                .content("내용 " + i)
+                .build())
+            .toList());
+
+        // when
+        List<PostResponse> first = postService.getList(PostSearch.builder().page(1).size(10).build());
+        List<PostResponse> second = postService.getList(PostSearch.builder().lastId(first.get(9).getId()).size(10).build());
+        List<PostResponse> third = postService.getList(PostSearch.builder().page(3).size(10).build());
+
+        // then
+        Assertions.assertEquals("제목 29", first.get(0).getTitle());
+        Assertions.assertEquals("제목 19", second.get(0).getTitle());
+        Assertions.assertEquals(10, third.size());
+        Assertions.assertEquals("제목 9", third.get(0).getTitle());
+        Assertions.assertEquals("제목 0", third.get(9).getTitle());
+    }
+
+    @Test
+    @DisplayName("스냅샷이 켜진 채로 /posts 목록은 작성/수정/삭제 요청을 바로 반영한다")
+    void test3() throws Exception {
+        // given
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(post("/posts")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(PostCreate.builder()
+                        .title("제목 " + i)
+                        .content("내용 " + i)
+                        .build())))
+                .andExpect(status().isOk());
+        }
+        List<Long> ids = postService.getList(PostSearch.builder().size(10).build()).stream()
+            .map(PostResponse::getId)
+            .toList();
+
+        // when
+        mockMvc.perform(patch("/posts/{postId}", ids.get(1))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(PostEdit.builder()
+                    .title("수정된 제목입니다 열자 넘게")
+                    .content("수정된 내용")
+                    .build())))
+            .andExpect(status().isOk());
+        mockMvc.perform(delete("/posts/{postId}", ids.get(0)))
+            .andExpect(status().isOk());
+
+        // then
+        mockMvc.perform(get("/posts?page=1&size=10"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(2))
+            .andExpect(jsonPath("$[0].id").value(ids.get(1)))
+            .andExpect(jsonPath("$[0].title").value("수정된 제목입니다 열자 넘게"))
+            .andExpect(jsonPath("$[0].content").value("수정된 내용"))
+            .andExpect(jsonPath("$[0].version").value(1))
+            .andExpect(jsonPath("$[1].title").value("제목 0"));
+
+        mockMvc.perform(get("/posts?size=10&lastId={lastId}", ids.get(1)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$[0].id").value(ids.get(2)));
+    }
+
+    @Test
+    @DisplayName("수정/삭제 이벤트 뒤에도 스냅샷 응답은 DB 에서 읽은 목록과 같다 (삭제로 줄어들어 다시 채운 경우 포함)")
+    void test4() {
+        // given
+        postService.writeAll(IntStream.range(0, 30)
+            .mapToObj(i -> PostCreate.builder()
+                .title("제목 " + i)
+                .content("내용 " + i)
+                .build())
+            .toList());
+        List<PostResponse> written = postService.getList(PostSearch.builder().size(20).build());
+
+        postService.edit(written.get(15).getId(), PostEdit.builder()
+            .title("수정된 제목")
+            .content("수정된 내용")
+            .build());
+        // 20 개 중 11 개를 지우면 절반 아래로 줄어 DB 에서 다시 채운다
+        written.subList(0, 11).forEach(post -> postService.delete(post.getId()));
+
+        // when
+        PostSearch firstPage = PostSearch.builder().page(1).size(10).build();
+        List<PostResponse> snapshot = postService.getList(firstPage);
+        List<Post> database = postRepository.getList(firstPage);
+
+        // then
+        Assertions.assertEquals(database.stream().map(Post::getId).toList(),
+            snapshot.stream().map(PostResponse::getId).toList());
+        Assertions.assertEquals(database.stream().map(Post::getTitle).toList(),
+            snapshot.stream().map(PostResponse::getTitle).toList());
+        Assertions.assertEquals(database.stream().map(Post::getVersion).toList(),
+            snapshot.stream().map(PostResponse::getVersion).toList());
+        Assertions.assertEquals("수정된 제목", snapshot.get(4).getTitle());
+    }
+}
@@ -0,0 +1,98 @@
+package com.hodol.api.service;
+
+import com.hodol.api.config.ReplicaRoutingDataSource;
+import com.hodol.api.request.PostSearch;
+import com.hodol.api.response.PostResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class PostReadCoalescerTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PostReadCoalescer coalescer = new PostReadCoalescer(meterRegistry);
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @AfterEach
+    void shutdown() {
+        ReplicaRoutingDataSource.unpin();
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("primary 에 고정된 요청은 replica 에서 읽는 중인 같은 글 조회에 합류하지 않는다")
+    void test1() throws Exception {
+        // given: 고정되지 않은 요청이 replica 에서 읽는 중
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<PostResponse> replica = executor.submit(() -> coalescer.get(1L, () -> {
+            started.countDown();
+            await(release);
+            return post("복제 전");
+        }));
+        Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // when
+        ReplicaRoutingDataSource.pinToPrimary();
+        PostResponse primary = coalescer.get(1L, () -> post("복제 후"));
+        release.countDown();
+
+        // then
+        Assertions.assertEquals("복제 후", primary.getTitle());
+        Assertions.assertEquals("복제 전", replica.get(5, TimeUnit.SECONDS).getTitle());
+        Assertions.assertEquals(0, meterRegistry.get("hodol.post.singleflight.shared").tag("operation", "get")
+            .counter().count());
+    }
+
+    @Test
+    @DisplayName("primary 에 고정된 요청은 replica 에서 읽는 중인 같은 목록 조회에 합류하지 않는다")
+    void test2() throws Exception {
+        // given
+        PostSearch postSearch = PostSearch.builder().build();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<List<PostResponse>> replica = executor.submit(() -> coalescer.getList(postSearch, () -> {
+            started.countDown();
+            await(release);
+            return List.of();
+        }));
+        Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // when
+        ReplicaRoutingDataSource.pinToPrimary();
+        List<PostResponse> primary = coalescer.getList(postSearch, () -> List.of(post("방금 쓴 글")));
+        release.countDown();
+
+        // then
+        Assertions.assertEquals(1, primary.size());
+        Assertions.assertEquals(List.of(), replica.get(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(0, meterRegistry.get("hodol.post.singleflight.shared").tag("operation", "list")
+            .counter().count());
+    }
+
+    private static PostResponse post(String title) {
+        return PostResponse.builder()
+            .id(1L)
+            .title(title)
+            .content("내용")
+            .version(0L)
+            .build();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
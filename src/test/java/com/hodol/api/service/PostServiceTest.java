@@ -1,12 +1,21 @@
 package com.hodol.api.service;
 
+import com.hodol.api.config.CacheConfig;
 import com.hodol.api.domain.Post;
+import com.hodol.api.exception.InvalidRequest;
 import com.hodol.api.exception.PostNotFound;
+import com.hodol.api.exception.PreconditionFailed;
 import com.hodol.api.repository.PostRepository;
 import com.hodol.api.request.PostCreate;
 import com.hodol.api.request.PostEdit;
 import com.hodol.api.request.PostSearch;
+import com.hodol.api.response.PostBatchResponse;
 import com.hodol.api.response.PostResponse;
+import com.hodol.api.response.PostSummaryResponse;
+import jakarta.persistence.EntityManagerFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.IntStream;
 import org.junit.jupiter.api.Assertions;
@@ -15,8 +24,11 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
 
-@SpringBootTest
+// 리포지토리로 직접 글을 넣고 목록을 확인하므로 이벤트로만 갱신되는 스냅샷을 끈다 (스냅샷 목록은 PostListSnapshotTest)
+@SpringBootTest(properties = "hodol.post.snapshot.enabled=false")
 class PostServiceTest {
 
     @Autowired
@@ -25,9 +37,27 @@ class PostServiceTest {
     @Autowired
     private PostRepository postRepository;
 
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private PostViewCounter postViewCounter;
+
+    @Autowired
+    private PostCache postCache;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     @BeforeEach
     void clean() {
         postRepository.deleteAll();
+        cacheManager.getCache(CacheConfig.POST).clear();
+        // 2차 캐시(JCache)는 테스트 컨텍스트끼리 같이 쓰는데, 다른 컨텍스트가 스키마를 다시 만들면 같은 id 가 다시 쓰인다
+        entityManagerFactory.getCache().evictAll();
     }
 
 
@@ -216,4 +246,449 @@ class PostServiceTest {
             postService.edit(post.getId() + 1L, postEdit);
         });
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("글 여러개 조회 - 커서 페이징")
+    void test10() {
+        // given
+        List<Post> requestPosts = IntStream.range(0, 20)
+            .mapToObj(i -> Post.builder()
+                .title("foo" + i)
+                .content("bar" + i)
+                .build())
+            .toList();
+        postRepository.saveAll(requestPosts);
+
+        Long lastId = requestPosts.get(15).getId();
+
+        PostSearch postSearch = PostSearch.builder()
+            .lastId(lastId)
+            .size(5)
+            .build();
+
+        // when
+        List<PostResponse> posts = postService.getList(postSearch);
+
+        // then
+        Assertions.assertEquals(5L, posts.size());
+        Assertions.assertEquals("foo14", posts.get(0).getTitle());
+        Assertions.assertEquals("foo10", posts.get(4).getTitle());
+    }
+
+    @Test
+    @DisplayName("글 목록 요약 조회 - 본문은 앞부분만")
+    void test11() {
+        // given
+        List<Post> requestPosts = IntStream.range(0, 20)
+            .mapToObj(i -> Post.builder()
+                .title("foo" + i)
+                .content("bar".repeat(100) + i)
+                .build())
+            .toList();
+        postRepository.saveAll(requestPosts);
+
+        PostSearch postSearch = PostSearch.builder()
+            .page(1)
+            .build();
+
+        // when
+        List<PostSummaryResponse> posts = postService.getSummaryList(postSearch);
+
+        // then
+        Assertions.assertEquals(10L, posts.size());
+        Assertions.assertEquals("foo19", posts.get(0).getTitle());
+        Assertions.assertEquals(PostSummaryResponse.EXCERPT_LENGTH, posts.get(0).getExcerpt().length());
+    }
+
+    @Test
+    @DisplayName("글 한개 조회 - 캐시 적중 시 저장소를 조회하지 않는다")
+    void test12() {
+        // given
+        Post post = Post.builder()
+            .title("foo")
+            .content("bar")
+            .build();
+        postRepository.save(post);
+        postService.get(post.getId());
+
+        // 서비스를 거치지 않고 지워도 캐시에 남아있는 응답이 나가야 한다
+        postRepository.deleteById(post.getId());
+
+        // when
+        PostResponse response = postService.get(post.getId());
+
+        // then
+        Assertions.assertEquals("foo", response.getTitle());
+        Assertions.assertEquals("bar", response.getContent());
+    }
+
+    @Test
+    @DisplayName("글 수정 후 조회 시 캐시가 아닌 수정된 내용이 나온다")
+    void test13() {
+        // given
+        Post post = Post.builder()
+            .title("foo")
+            .content("bar")
+            .build();
+        postRepository.save(post);
+        postService.get(post.getId());
+
+        PostEdit postEdit = PostEdit.builder()
+            .title("FOO")
+            .content("BAR")
+            .build();
+
+        // when
+        postService.edit(post.getId(), postEdit);
+        PostResponse response = postService.get(post.getId());
+
+        // then
+        Assertions.assertEquals("FOO", response.getTitle());
+        Assertions.assertEquals("BAR", response.getContent());
+    }
+
+    @Test
+    @DisplayName("글 삭제 후 조회 시 캐시가 아닌 실패 응답이 나온다")
+    void test14() {
+        // given
+        Post post = Post.builder()
+            .title("foo")
+            .content("bar")
+            .build();
+        postRepository.save(post);
+        postService.get(post.getId());
+
+        // when
+        postService.delete(post.getId());
+
+        // expected
+        Assertions.assertThrows(PostNotFound.class, () -> {
+            postService.get(post.getId());
+        });
+    }
+
+    @Test
+    @DisplayName("글 여러개 한번에 작성")
+    void test15() {
+        // given
+        List<PostCreate> postCreates = IntStream.range(0, 1234)
+            .mapToObj(i -> PostCreate.builder()
+                .title("foo" + i)
+                .content("bar" + i)
+                .build())
+            .toList();
+
+        // when
+        postService.writeAll(postCreates);
+
+        // then
+        Assertions.assertEquals(1234L, postRepository.count());
+    }
+
+    @Test
+    @DisplayName("글 여러개 한번에 작성 - 잘못된 항목은 순번과 함께 알려주고 아무것도 저장하지 않는다")
+    void test16() {
+        // given
+        List<PostCreate> postCreates = List.of(
+            PostCreate.builder().title("foo").content("bar").build(),
+            PostCreate.builder().title(null).content("bar").build(),
+            PostCreate.builder().title("바보").content("bar").build());
+
+        // when
+        InvalidRequest e = Assertions.assertThrows(InvalidRequest.class, () -> {
+            postService.writeAll(postCreates);
+        });
+
+        // then
+        Assertions.assertEquals("타이틀을 입력해주세요.", e.getValidation().get("[1].title"));
+        Assertions.assertEquals("제목에 바보를 포함할 수 없습니다.", e.getValidation().get("[2].title"));
+        Assertions.assertEquals(0L, postRepository.count());
+    }
+
+    @Test
+    @DisplayName("글 검색 - 제목/본문에 검색어가 포함된 글만 조회")
+    void test17() {
+        // given
+        postService.write(PostCreate.builder().title("호돌맨 요절복통 개발쇼").content("스프링 부트 게시판").build());
+        postService.write(PostCreate.builder().title("자바 기초").content("호돌맨과 함께하는 자바").build());
+        postService.write(PostCreate.builder().title("코틀린").content("안드로이드").build());
+
+        PostSearch postSearch = PostSearch.builder()
+            .q("호돌맨")
+            .build();
+
+        // when
+        List<PostResponse> posts = postService.getList(postSearch);
+
+        // then
+        Assertions.assertEquals(2L, posts.size());
+        Assertions.assertEquals("호돌맨 요절복통 개발쇼", posts.get(0).getTitle());
+        Assertions.assertEquals("자바 기초", posts.get(1).getTitle());
+    }
+
+    @Test
+    @DisplayName("글 내용만 수정 - 넘기지 않은 제목은 그대로")
+    void test18() {
+        // given
+        Post post = Post.builder()
+            .title("foo")
+            .content("bar")
+            .build();
+        postRepository.save(post);
+
+        PostEdit postEdit = PostEdit.builder()
+            .title(null)
+            .content("BAR")
+            .build();
+
+        // when
+        PostResponse response = postService.edit(post.getId(), postEdit);
+
+        // then
+        Assertions.assertEquals("foo", response.getTitle());
+        Assertions.assertEquals("BAR", response.getContent());
+
+        Post changedPost = postRepository.findById(post.getId())
+            .orElseThrow(() -> new RuntimeException("글이 존재 하지 않습니다. id=" + post.getId()));
+        Assertions.assertEquals("foo", changedPost.getTitle());
+        Assertions.assertEquals("BAR", changedPost.getContent());
+    }
+
+    @Test
+    @DisplayName("글 수정 시 버전이 올라가고, 이전 버전으로는 수정할 수 없다")
+    void test19() {
+        // given
+        Post post = Post.builder()
+            .title("foo")
+            .content("bar")
+            .build();
+        postRepository.save(post);
+
+        PostEdit postEdit = PostEdit.builder()
+            .title("FOO")
+            .content("BAR")
+            .build();
+
+        // when
+        PostResponse response = postService.edit(post.getId(), postEdit, 0L);
+
+        // then
+        Assertions.assertEquals(1L, response.getVersion());
+        Assertions.assertEquals(1L, postService.getVersion(post.getId()));
+        Assertions.assertThrows(PreconditionFailed.class, () -> {
+            postService.edit(post.getId(), postEdit, 0L);
+        });
+    }
+
+    @Test
+    @DisplayName("모아 둔 조회수는 flush 할 때 DB 에 한 번에 더해진다")
+    void test20() {
+        // given
+        Post post = postRepository.save(Post.builder()
+            .title("foo")
+            .content("bar")
+            .build());
+
+        // when
+        IntStream.range(0, 5).forEach(i -> postViewCounter.increment(post.getId()));
+        postViewCounter.flush();
+        long viewCount = postViewCounter.increment(post.getId());
+        postViewCounter.flush();
+
+        // then
+        Assertions.assertEquals(6L, viewCount);
+        Assertions.assertEquals(6L, postRepository.findViewCountById(post.getId()).orElseThrow());
+        Assertions.assertEquals(6L, postService.getList(PostSearch.builder().build()).get(0).getViewCount());
+    }
+
+    @Test
+    @DisplayName("2차 캐시에 올라간 글도 수정(벌크 update) 후에는 바뀐 값으로 읽힌다")
+    void test21() {
+        // given
+        Post post = postRepository.save(Post.builder()
+            .title("foo")
+            .content("bar")
+            .build());
+        postRepository.findById(post.getId());
+        Assertions.assertTrue(entityManagerFactory.getCache().contains(Post.class, post.getId()));
+
+        // when
+        postService.edit(post.getId(), PostEdit.builder()
+            .title("호돌걸")
+            .content("반포자이")
+            .build());
+
+        // then
+        Post edited = postRepository.findById(post.getId()).orElseThrow();
+        Assertions.assertEquals("호돌걸", edited.getTitle());
+        Assertions.assertEquals("반포자이", edited.getContent());
+        Assertions.assertEquals(1L, edited.getVersion());
+    }
+
+    @Test
+    @DisplayName("첫 페이지 목록은 쿼리 캐시에 두고, 글이 수정/삭제되면 다시 조회한다")
+    void test22() {
+        // given
+        List<Post> posts = postRepository.saveAll(IntStream.range(0, 3)
+            .mapToObj(i -> Post.builder()
+                .title("제목 " + i)
+                .content("내용 " + i)
+                .build())
+            .toList());
+        PostSearch firstPage = PostSearch.builder().build();
+        Assertions.assertEquals(3, postService.getList(firstPage).size());
+
+        // when
+        postService.edit(posts.get(2).getId(), PostEdit.builder()
+            .title("수정")
+            .content("수정된 내용")
+            .build());
+        postService.delete(posts.get(0).getId());
+
+        // then
+        List<PostResponse> list = postService.getList(firstPage);
+        Assertions.assertEquals(2, list.size());
+        Assertions.assertEquals("수정", list.get(0).getTitle());
+        Assertions.assertTrue(entityManagerFactory.getCache().contains(Post.class, posts.get(1).getId()));
+    }
+
+    @Test
+    @DisplayName("긴 본문은 압축해서 저장하고, 읽을 때 원래 본문으로 풀고, 요약은 본문 앞부분을 보여준다")
+    void test23() {
+        // given
+        String content = "반포자이에 사는 호돌맨의 글입니다. ".repeat(200);
+        postService.write(PostCreate.builder()
+            .title("호돌맨")
+            .content(content)
+            .build());
+        Post post = postRepository.findAll().get(0);
+
+        // when
+        Integer stored = jdbcTemplate.queryForObject("select octet_length(content) from post where id = ?",
+            Integer.class, post.getId());
+        entityManagerFactory.getCache().evictAll();
+        PostResponse response = postService.get(post.getId());
+
+        // then
+        Assertions.assertTrue(stored < content.getBytes(StandardCharsets.UTF_8).length / 10);
+        Assertions.assertEquals(content, response.getContent());
+        Assertions.assertEquals(content.substring(0, PostSummaryResponse.EXCERPT_LENGTH),
+            postService.getSummaryList(PostSearch.builder().build()).get(0).getExcerpt());
+    }
+
+    @Test
+    @DisplayName("여러 글 조회 - chunk 로 나눠 읽어도 요청한 순서를 지키고, 없는 글은 missing 에 담는다")
+    void test24() {
+        // given
+        List<Post> posts = postRepository.saveAll(IntStream.range(0, 1200)
+            .mapToObj(i -> Post.builder()
+                .title("제목 " + i)
+                .content("내용 " + i)
+                .build())
+            .toList());
+        List<Long> ids = new ArrayList<>(posts.stream().map(Post::getId).toList());
+        Collections.reverse(ids);
+        ids.add(1, -1L);
+
+        // when
+        PostBatchResponse response = postService.getAll(ids.subList(0, 1000));
+
+        // then
+        Assertions.assertEquals(999, response.getPosts().size());
+        Assertions.assertEquals(List.of(-1L), response.getMissing());
+        Assertions.assertEquals(posts.get(1199).getId(), response.getPosts().get(0).getId());
+        Assertions.assertEquals(posts.get(1198).getId(), response.getPosts().get(1).getId());
+        Assertions.assertEquals(posts.get(201).getId(), response.getPosts().get(998).getId());
+        Assertions.assertThrows(InvalidRequest.class, () -> postService.getAll(ids));
+    }
+
+    @Test
+    @DisplayName("수정 전에 읽은 조회가 수정 커밋 뒤에 캐시에 넣으려 해도 수정된 내용이 남는다")
+    void test25() {
+        // given
+        Post post = Post.builder()
+            .title("foo")
+            .content("bar")
+            .build();
+        postRepository.save(post);
+        PostResponse stale = postService.get(post.getId());
+        cacheManager.getCache(CacheConfig.POST).clear();
+
+        postService.edit(post.getId(), PostEdit.builder()
+            .title("FOO")
+            .content("BAR")
+            .build());
+
+        // when: 수정 전에 DB 에서 읽은 값이 늦게 도착한다
+        PostResponse cached = postCache.put(stale);
+
+        // then
+        Assertions.assertEquals("FOO", cached.getTitle());
+        Assertions.assertEquals("FOO", postService.get(post.getId()).getTitle());
+        Assertions.assertEquals(1L, postService.get(post.getId()).getVersion());
+    }
+
+    @Test
+    @DisplayName("삭제 전에 읽은 조회가 삭제 커밋 뒤에 캐시에 넣으려 해도 글이 되살아나지 않는다")
+    void test26() {
+        // given
+        Post post = Post.builder()
+            .title("foo")
+            .content("bar")
+            .build();
+        postRepository.save(post);
+        PostResponse stale = postService.get(post.getId());
+
+        postService.delete(post.getId());
+
+        // expected
+        Assertions.assertThrows(PostNotFound.class, () -> postCache.put(stale));
+        Assertions.assertThrows(PostNotFound.class, () -> postService.get(post.getId()));
+        Assertions.assertThrows(PostNotFound.class, () -> postService.getVersion(post.getId()));
+    }
+
+    @Test
+    @DisplayName("글 수정 응답은 제목을 자르지 않고, 단건 조회는 10자로 자른다")
+    void test27() {
+        // given
+        Post post = Post.builder()
+            .title("foo")
+            .content("bar")
+            .build();
+        postRepository.save(post);
+
+        PostEdit postEdit = PostEdit.builder()
+            .title("호돌맨 반포자이 입주민")
+            .content("bar")
+            .build();
+
+        // when
+        PostResponse edited = postService.edit(post.getId(), postEdit, 0L);
+
+        // then
+        Assertions.assertEquals("호돌맨 반포자이 입주민", edited.getTitle());
+        Assertions.assertEquals(1L, edited.getVersion());
+        Assertions.assertEquals("호돌맨 반포자이 입", postService.get(post.getId()).getTitle());
+    }
+
+    @Test
+    @DisplayName("한 주기 동안 조회되지 않은 글의 조회수는 flush 후 메모리에서 빠지고, 다시 조회하면 DB 값부터 센다")
+    void test28() {
+        // given
+        Post post = postRepository.save(Post.builder()
+            .title("foo")
+            .content("bar")
+            .build());
+        IntStream.range(0, 3).forEach(i -> postViewCounter.increment(post.getId()));
+
+        // when: 첫 flush 는 증가분을 반영하고, 그 뒤로 조회가 없으면 다음 flush 에서 빠진다
+        postViewCounter.flush();
+        postViewCounter.flush();
+
+        // then
+        Assertions.assertEquals(0, postViewCounter.size());
+        Assertions.assertEquals(4L, postViewCounter.increment(post.getId()));
+        postViewCounter.flush();
+        Assertions.assertEquals(4L, postRepository.findViewCountById(post.getId()).orElseThrow());
+    }
+}
@@ -0,0 +1,105 @@
+package com.hodol.api.service;
+
+import com.hodol.api.exception.PostNotFound;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class SingleFlightTest {
+
+    private static final int REQUESTS = 10;
+
+    private final Counter shared = new SimpleMeterRegistry().counter("shared");
+    private final SingleFlight<Long, String> singleFlight = new SingleFlight<>(shared);
+    private final ExecutorService executor = Executors.newFixedThreadPool(REQUESTS);
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("같은 키로 동시에 들어온 요청은 조회 한 번의 결과를 함께 받는다")
+    void test1() throws Exception {
+        // given
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        // when
+        List<Future<String>> results = submitAll(() -> singleFlight.execute(1L, () -> {
+            loads.incrementAndGet();
+            await(release);
+            return "호돌맨";
+        }));
+        awaitShared(REQUESTS - 1);
+        release.countDown();
+
+        // then
+        for (Future<String> result : results) {
+            Assertions.assertEquals("호돌맨", result.get(5, TimeUnit.SECONDS));
+        }
+        Assertions.assertEquals(1, loads.get());
+        Assertions.assertEquals(REQUESTS - 1, shared.count());
+
+        // 끝난 뒤에 온 요청은 다시 읽는다
+        Assertions.assertEquals("반포자이", singleFlight.execute(1L, () -> "반포자이"));
+    }
+
+    @Test
+    @DisplayName("조회가 PostNotFound 로 실패하면 기다리던 요청도 모두 PostNotFound 를 받는다")
+    void test2() throws Exception {
+        // given
+        CountDownLatch release = new CountDownLatch(1);
+
+        // when
+        List<Future<String>> results = submitAll(() -> singleFlight.execute(1L, () -> {
+            await(release);
+            throw new PostNotFound();
+        }));
+        awaitShared(REQUESTS - 1);
+        release.countDown();
+
+        // then
+        for (Future<String> result : results) {
+            ExecutionException e = Assertions.assertThrows(ExecutionException.class,
+                () -> result.get(5, TimeUnit.SECONDS));
+            Assertions.assertInstanceOf(PostNotFound.class, e.getCause());
+        }
+    }
+
+    private List<Future<String>> submitAll(Callable<String> task) {
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            results.add(executor.submit(task));
+        }
+        return results;
+    }
+
+    private void awaitShared(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (shared.count() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}